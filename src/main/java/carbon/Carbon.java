@@ -1,5 +1,20 @@
 package carbon;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.util.List;
+import java.util.function.Consumer;
+
+import carbon.task.Task;
+import carbon.task.TaskListener;
+import carbon.utils.Response;
+import carbon.utils.Storage;
 import carbon.utils.Ui;
 
 /**
@@ -15,6 +30,34 @@ public class Carbon {
         ui = new Ui();
     }
 
+    /**
+     * Creates a Carbon object whose tasks are saved to the specified data file.
+     *
+     * @param filePath Path of the data file.
+     */
+    public Carbon(String filePath) {
+        ui = new Ui(new Storage(filePath));
+    }
+
+    /**
+     * Runs Carbon in the terminal, without a GUI.
+     * Commands are read from standard input, and replies are written to standard output.
+     *
+     * @param args Unused.
+     * @throws IOException If standard input or output could not be used.
+     */
+    public static void main(String[] args) throws IOException {
+        // Unlike System.in and System.out, these are not synchronised or flushed on every line
+        BufferedReader in = new BufferedReader(new InputStreamReader(new FileInputStream(FileDescriptor.in)));
+        BufferedWriter out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out)));
+        Carbon carbon = new Carbon();
+        try {
+            new Console(carbon, in, out).run();
+        } finally {
+            carbon.close();
+        }
+    }
+
     /**
      * Generates a response for the user's chat message.
      */
@@ -23,11 +66,64 @@ public class Carbon {
     }
 
     /**
-     * Returns the most recent command processed by UI.
+     * Generates a response for the user's chat message, along with the command it is a response to.
+     */
+    public Response respond(String input) {
+        return ui.respond(input);
+    }
+
+    /**
+     * Writes every task to <code>out</code>, in the same format as the reply to "list",
+     * one line at a time.
+     *
+     * @param out Destination of the lines.
+     * @param indent Text written at the start of each line.
+     * @throws IOException If <code>out</code> could not be written to.
+     */
+    public void writeTasks(Appendable out, String indent) throws IOException {
+        ui.writeTasks(out, indent);
+    }
+
+    /**
+     * Returns a copy of every task, in the order in which they are numbered.
      *
-     * @return Most recent command.
+     * @return Copies of the tasks in the task list.
+     */
+    public List<Task> getTasks() {
+        return ui.getTasks();
+    }
+
+    /**
+     * Starts reminding the user of tasks shortly before they are due.
+     *
+     * @param notifier Receives the text of each reminder, on a background thread.
+     */
+    public void startReminders(Consumer<String> notifier) {
+        ui.startReminders(notifier);
+    }
+
+    /**
+     * Starts telling a listener about every task, and every change to the tasks.
+     *
+     * @param listener Listener to be called, on the thread making each change.
+     */
+    public void addTaskListener(TaskListener listener) {
+        ui.addTaskListener(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes to the tasks.
+     *
+     * @param listener Listener added by {@link #addTaskListener(TaskListener)}.
+     */
+    public void removeTaskListener(TaskListener listener) {
+        ui.removeTaskListener(listener);
+    }
+
+    /**
+     * Saves any pending changes before the program exits.
      */
-    public String getCommand() {
-        return ui.getMostRecentCommand();
+    public void close() {
+        ui.close();
     }
 }
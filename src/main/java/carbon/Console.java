@@ -0,0 +1,89 @@
+package carbon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+
+import carbon.utils.Response;
+
+/**
+ * A text-based interface for Carbon, for use in a terminal or with redirected input and output.
+ * <p>
+ * Each reply is written in a box, after the welcome message. Replies are buffered while more input
+ * is immediately available, so piping many commands in does not flush the output after each one,
+ * while a user typing commands sees each reply straight away.
+ * <p>
+ * Unlike the GUI, which shows a page of tasks at a time, "list" lists every task, as the lines are
+ * written straight to the output rather than being built into a single reply first.
+ */
+public class Console {
+    private static final String LINE = "    ____________________________________________________________\n";
+    private static final String INDENT = "     ";
+    private static final String LOGO = """
+              ____           _
+             / ___|__ _ _ __| |__   ___  _ __
+            | |   / _` | '__| '_ \\ / _ \\| '_ \\
+            | |__| (_| | |  | |_) | (_) | | | |
+             \\____\\__,_|_|  |_.__/ \\___/|_| |_|
+            """;
+
+    private final Carbon carbon;
+    private final BufferedReader in;
+    private final Writer out;
+
+    /**
+     * Creates a Console that reads commands from <code>in</code> and writes replies to <code>out</code>.
+     *
+     * @param carbon Carbon to process the commands.
+     * @param in Source of commands, one per line.
+     * @param out Destination of replies.
+     */
+    public Console(Carbon carbon, BufferedReader in, Writer out) {
+        this.carbon = carbon;
+        this.in = in;
+        this.out = out;
+    }
+
+    /**
+     * Processes commands until the "bye" command is entered or the input ends.
+     * The output is flushed before returning.
+     *
+     * @throws IOException If the input could not be read or the output could not be written.
+     */
+    public void run() throws IOException {
+        write(LOGO + carbon.getResponse("start"));
+        String input;
+        while ((input = in.readLine()) != null) {
+            if (input.isBlank()) {
+                continue;
+            }
+            if (input.trim().equalsIgnoreCase("list")) {
+                out.write(LINE);
+                carbon.writeTasks(out, INDENT);
+                out.write(LINE);
+                out.write('\n');
+            } else {
+                Response response = carbon.respond(input);
+                write(response.text());
+                if (response.command().equals("bye")) {
+                    break;
+                }
+            }
+            if (!in.ready()) {
+                out.flush();
+            }
+        }
+        out.flush();
+    }
+
+    private void write(String reply) throws IOException {
+        out.write(LINE);
+        for (String line : reply.split("\n")) {
+            out.write(INDENT);
+            out.write(line);
+            out.write('\n');
+        }
+        out.write(LINE);
+        out.write('\n');
+    }
+}
@@ -5,6 +5,7 @@ import java.util.Objects;
 
 import carbon.gui.MainWindow;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
@@ -13,12 +14,18 @@ import javafx.stage.Stage;
 
 /**
  * A GUI for Carbon using FXML.
+ * <p>
+ * If the system property <code>carbon.exitAfterStartup</code> is <code>true</code>, the GUI exits as soon as
+ * the tasks have been loaded, after printing when the window was shown and when the tasks were loaded
+ * (or that they could not be loaded).
+ * This is used to create a class data sharing archive of the classes loaded on startup, and to measure
+ * the time taken to start up (see <code>StartupBenchmark</code> in the tests).
  */
 public class Main extends Application {
-    private final Carbon carbon = new Carbon();
+    private MainWindow mainWindow;
 
     /**
-     * Starts the GUI.
+     * Starts the GUI, showing the window before the tasks are loaded.
      *
      * @param stage Stage to use.
      */
@@ -31,13 +38,40 @@ public class Main extends Application {
             stage.setScene(scene);
             stage.setMinHeight(220);
             stage.setMinWidth(417);
-            fxmlLoader.<MainWindow>getController().setCarbon(carbon); // inject the Carbon instance
+            mainWindow = fxmlLoader.getController();
             stage.getIcons().add(new Image(Objects.requireNonNull(
                     Main.class.getResourceAsStream("/images/carbon.png"))));
             stage.setTitle("Carbon");
             stage.show();
+
+            boolean isExitingAfterStartup = Boolean.getBoolean("carbon.exitAfterStartup");
+            if (isExitingAfterStartup) {
+                System.out.println("Window shown");
+            }
+            mainWindow.loadCarbon(Carbon::new, () -> {
+                if (isExitingAfterStartup) {
+                    System.out.println("Tasks loaded");
+                    Platform.exit();
+                }
+            }, () -> {
+                if (isExitingAfterStartup) {
+                    System.out.println("Tasks could not be loaded");
+                    Platform.exit();
+                }
+            });
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Finishes processing any commands that have been entered, then saves any pending changes,
+     * when the GUI is closed.
+     */
+    @Override
+    public void stop() {
+        if (mainWindow != null) {
+            mainWindow.close();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package carbon.gui;
+
+import carbon.utils.ChatHistory;
+import carbon.utils.ChatMessage;
+import javafx.collections.ObservableListBase;
+
+/**
+ * An observable view of a {@link ChatHistory}, to be shown in a ListView.
+ * <p>
+ * A ListView only asks for the messages in the cells it is showing, so messages that have been spilled
+ * to the disk are only read back when the user scrolls up to them.
+ */
+class ChatHistoryList extends ObservableListBase<ChatMessage> {
+    private final ChatHistory history;
+
+    ChatHistoryList(ChatHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Adds a message to the end of the history, and tells any listeners about it.
+     *
+     * @param message Message to be added.
+     */
+    void append(ChatMessage message) {
+        beginChange();
+        history.add(message);
+        nextAdd(history.size() - 1, history.size());
+        endChange();
+    }
+
+    @Override
+    public ChatMessage get(int index) {
+        return history.get(index);
+    }
+
+    @Override
+    public int size() {
+        return history.size();
+    }
+}
@@ -1,52 +1,88 @@
 package carbon.gui;
 
-import java.io.IOException;
 import java.util.Collections;
+import java.util.Objects;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.text.Font;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * <p>
+ * Dialog boxes are built in code rather than loaded from FXML, so that creating one does not parse
+ * any XML or set any properties by reflection. The stylesheet and font are looked up once and shared.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final String STYLESHEET = Objects.requireNonNull(
+            DialogBox.class.getResource("/css/dialog-box.css")).toExternalForm();
+    private static final Font FONT = new Font("Trebuchet MS", 16);
+    private static final double IMAGE_SIZE = 70;
 
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
+    DialogBox() {
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setWrapText(true);
+        dialog.setFont(FONT);
+        dialog.setPadding(new Insets(6, 7, 7, 7));
+        HBox.setMargin(dialog, new Insets(0, 7, 0, 7));
+
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(IMAGE_SIZE);
+        displayPicture.setFitHeight(IMAGE_SIZE);
+        displayPicture.setPickOnBounds(true);
+        displayPicture.setPreserveRatio(true);
+
+        getStylesheets().add(STYLESHEET);
+        setAlignment(Pos.TOP_RIGHT);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        setPrefWidth(400);
+        setPadding(new Insets(15, 5, 15, 5));
+        getChildren().addAll(dialog, displayPicture);
     }
 
     /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
+     * Flips the dialog box such that the ImageView is on the other side of the text.
      */
     private void flip() {
         ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
         Collections.reverse(tmp);
         getChildren().setAll(tmp);
-        setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("reply-label");
+    }
+
+    /**
+     * Replaces the contents of the dialog box, so that it can be reused for another message.
+     * A message from the user is formatted from the right, and a message from Carbon from the left.
+     *
+     * @param text Text to contain.
+     * @param img Image to contain.
+     * @param isUser Whether the message is from the user.
+     * @param command Command type of a message from Carbon.
+     */
+    void setMessage(String text, Image img, boolean isUser, String command) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        boolean isImageOnLeft = getChildren().get(0) == displayPicture;
+        if (isImageOnLeft == isUser) {
+            flip();
+        }
+        setAlignment(isUser ? Pos.TOP_RIGHT : Pos.TOP_LEFT);
+        dialog.getStyleClass().setAll("label");
+        if (!isUser) {
+            dialog.getStyleClass().add("reply-label");
+            changeDialogStyle(command);
+        }
     }
 
     private void changeDialogStyle(String commandType) {
@@ -65,6 +101,9 @@ public class DialogBox extends HBox {
         case "error":
             dialog.getStyleClass().add("error-label");
             break;
+        case "reminder":
+            dialog.getStyleClass().add("reminder-label");
+            break;
         default:
             // Do nothing
         }
@@ -78,7 +117,9 @@ public class DialogBox extends HBox {
      * @return DialogBox object.
      */
     public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
+        var db = new DialogBox();
+        db.setMessage(text, img, true, "");
+        return db;
     }
 
     /**
@@ -90,9 +131,8 @@ public class DialogBox extends HBox {
      * @return DialogBox object.
      */
     public static DialogBox getCarbonDialog(String text, Image img, String command) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        db.changeDialogStyle(command);
+        var db = new DialogBox();
+        db.setMessage(text, img, false, command);
         return db;
     }
 }
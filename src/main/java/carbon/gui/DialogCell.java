@@ -0,0 +1,42 @@
+package carbon.gui;
+
+import carbon.utils.ChatMessage;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.image.Image;
+
+/**
+ * A cell of the chat history, which shows a message in a {@link DialogBox}.
+ * <p>
+ * The ListView only creates enough cells to fill the window, and reuses them for other messages as the
+ * user scrolls, so each cell keeps a single DialogBox and changes its contents.
+ */
+class DialogCell extends ListCell<ChatMessage> {
+    // Leaves room for the vertical scroll bar
+    private static final double SCROLL_BAR_WIDTH = 20;
+
+    private final DialogBox dialogBox = new DialogBox();
+    private final Image userImage;
+    private final Image carbonImage;
+
+    DialogCell(ListView<ChatMessage> listView, Image userImage, Image carbonImage) {
+        this.userImage = userImage;
+        this.carbonImage = carbonImage;
+        // Lets the text wrap to the width of the list, instead of widening the cell
+        setPrefWidth(0);
+        dialogBox.prefWidthProperty().bind(listView.widthProperty().subtract(SCROLL_BAR_WIDTH));
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        setText(null);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        dialogBox.setMessage(message.text(), message.isUser() ? userImage : carbonImage, message.isUser(),
+                message.command());
+        setGraphic(dialogBox);
+    }
+}
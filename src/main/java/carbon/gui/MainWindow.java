@@ -1,32 +1,76 @@
 package carbon.gui;
 
 import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import carbon.Carbon;
+import carbon.utils.ChatHistory;
+import carbon.utils.ChatMessage;
+import carbon.utils.CommandQueue;
+import carbon.utils.Response;
 import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
 import javafx.fxml.FXML;
 import javafx.scene.control.Button;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
 import javafx.scene.control.TextField;
 import javafx.scene.image.Image;
-import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 
 /**
  * Controller for the main GUI.
+ * <p>
+ * The messages are shown in a ListView, which only creates nodes for the messages on the screen,
+ * and are kept in a {@link ChatHistory}, which only keeps the most recent messages in memory.
+ * So a long session does not keep adding to the memory used, or slow down layout and scrolling.
+ * <p>
+ * Beside the chat, every task is shown in a TableView, which is kept up to date by a {@link TaskTableList}.
+ * The table also only creates cells for the rows on the screen, so it stays smooth with many tasks.
+ * <p>
+ * Carbon is created on the thread processing commands, after the window is shown, so that loading the tasks
+ * does not delay the window. Commands entered in the meantime are held until the tasks have been loaded.
+ * If they cannot be loaded, the chat says so, every command held is replied to with an error,
+ * and no more input is accepted.
  */
 public class MainWindow extends AnchorPane {
+    private static final Logger LOGGER = Logger.getLogger(MainWindow.class.getName());
+    private static final String LOAD_FAILED_MESSAGE =
+            "Oops! Your tasks could not be loaded, so no commands can be carried out. Please restart Carbon :(";
+
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> dialogList;
     @FXML
     private TextField userInput;
     @FXML
     private Button sendButton;
+    @FXML
+    private ProgressIndicator busyIndicator;
+    @FXML
+    private TableView<TaskRow> taskTable;
+    @FXML
+    private TableColumn<TaskRow, Integer> numberColumn;
+    @FXML
+    private TableColumn<TaskRow, String> typeColumn;
+    @FXML
+    private TableColumn<TaskRow, String> doneColumn;
+    @FXML
+    private TableColumn<TaskRow, String> descriptionColumn;
+    @FXML
+    private TableColumn<TaskRow, String> whenColumn;
 
-    private Carbon carbon;
+    // Set on the thread processing commands, once the tasks have been loaded
+    private volatile Carbon carbon;
+    private CommandQueue commandQueue;
+    private final ChatHistory history = new ChatHistory();
+    private final ChatHistoryList messages = new ChatHistoryList(history);
+    private final TaskTableList taskRows = new TaskTableList();
+    private boolean isClosed;
 
     private final Image userImage = new Image(Objects.requireNonNull(
             this.getClass().getResourceAsStream("/images/user.png")));
@@ -38,40 +82,134 @@ public class MainWindow extends AnchorPane {
      */
     @FXML
     public void initialize() {
-        // Allows the user to scroll without first clicking on the scrollbar
-        scrollPane.addEventFilter(ScrollEvent.SCROLL, event -> scrollPane.vvalueProperty().unbind());
+        dialogList.setItems(messages);
+        dialogList.setCellFactory(list -> new DialogCell(list, userImage, carbonImage));
+
+        taskTable.setItems(taskRows);
+        // Tasks are numbered by their position, which the rows do not keep, so it is read from the cell
+        numberColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Integer item, boolean isEmpty) {
+                super.updateItem(item, isEmpty);
+                setText(isEmpty ? null : Integer.toString(getIndex() + 1));
+            }
+        });
+        typeColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(String.valueOf(cell.getValue().type())));
+        doneColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().isDone() ? "X" : ""));
+        descriptionColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().description()));
+        whenColumn.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(cell.getValue().when()));
+    }
+
+    /**
+     * Adds a message to the end of the chat, and scrolls down to it.
+     */
+    private void addMessage(ChatMessage message) {
+        if (isClosed) {
+            return;
+        }
+        messages.append(message);
+        dialogList.scrollTo(messages.size() - 1);
+    }
+
+    /**
+     * Creates the Carbon instance on a background thread, which loads the tasks.
+     * Commands are then processed by Carbon on that thread, in the order in which they are entered.
+     *
+     * @param loader Creates the Carbon instance.
+     * @param loadedListener Called on the JavaFX application thread once the tasks have been loaded
+     *     and the greeting is shown.
+     * @param failedListener Called on the JavaFX application thread instead, if the tasks could not be loaded,
+     *     once the error is shown.
+     */
+    public void loadCarbon(Supplier<Carbon> loader, Runnable loadedListener, Runnable failedListener) {
+        commandQueue = new CommandQueue(this::respond,
+                () -> Platform.runLater(() -> busyIndicator.setVisible(commandQueue.isBusy())),
+                e -> LOGGER.log(Level.SEVERE, "A command failed unexpectedly", e));
+        commandQueue.execute(() -> {
+            Carbon loaded = null;
+            try {
+                loaded = loader.get();
+                String greeting = loaded.getResponse("start");
+                loaded.addTaskListener(taskRows);
+                loaded.startReminders(text ->
+                        Platform.runLater(() -> addMessage(ChatMessage.fromCarbon("reminder", text))));
+                carbon = loaded;
+                Platform.runLater(() -> {
+                    addMessage(ChatMessage.fromCarbon("start", greeting));
+                    loadedListener.run();
+                });
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "The tasks could not be loaded", e);
+                Platform.runLater(() -> showLoadFailure(failedListener));
+                if (loaded != null) {
+                    loaded.removeTaskListener(taskRows);
+                    loaded.close();
+                }
+            }
+        });
+    }
+
+    /**
+     * Returns Carbon's reply to the user input, or an error if the tasks could not be loaded.
+     * Called on the thread processing commands, so the tasks have been loaded if they ever will be.
+     */
+    private Response respond(String input) {
+        Carbon loaded = carbon;
+        return loaded == null ? new Response("error", LOAD_FAILED_MESSAGE) : loaded.respond(input);
     }
 
     /**
-     * Injects the Carbon instance.
+     * Shows that the tasks could not be loaded, and stops accepting input.
      */
-    public void setCarbon(Carbon c) {
-        carbon = c;
-        dialogContainer.getChildren().addAll(
-                DialogBox.getCarbonDialog(carbon.getResponse("start"), carbonImage, "start")
-        );
+    private void showLoadFailure(Runnable failedListener) {
+        addMessage(ChatMessage.fromCarbon("error", LOAD_FAILED_MESSAGE));
+        userInput.setDisable(true);
+        sendButton.setDisable(true);
+        failedListener.run();
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Carbon's reply and then appends them
-     * to the dialog container. Clears the user input after processing.
+     * Adds a message echoing user input to the chat, then queues the input to be processed.
+     * Clears the user input without waiting for Carbon's reply.
+     * <p>
+     * Once "bye" has been entered, no more input is accepted.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = carbon.getResponse(input);
-        String command = carbon.getCommand();
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                DialogBox.getCarbonDialog(response, carbonImage, command)
-        );
+        addMessage(ChatMessage.fromUser(input));
         userInput.clear();
+        if (input.trim().split(" ", 2)[0].equalsIgnoreCase("bye")) {
+            userInput.setDisable(true);
+            sendButton.setDisable(true);
+        }
+        commandQueue.submit(input, response -> Platform.runLater(() -> showResponse(response)));
+    }
 
-        if (command.equals("bye")) {
+    /**
+     * Adds Carbon's reply to the chat.
+     * Exits once the reply to "bye" is shown, which is only after every command before it has been processed.
+     */
+    private void showResponse(Response response) {
+        addMessage(ChatMessage.fromCarbon(response.command(), response.text()));
+        if (response.command().equals("bye")) {
             Platform.exit();
         }
+    }
 
-        // Scroll to bottom
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+    /**
+     * Waits for every command that has been entered to be processed, then saves any pending changes
+     * and deletes the chat history from the disk.
+     */
+    public void close() {
+        if (commandQueue != null) {
+            commandQueue.close();
+        }
+        if (carbon != null) {
+            carbon.removeTaskListener(taskRows);
+            carbon.close();
+        }
+        isClosed = true;
+        history.close();
     }
 }
@@ -0,0 +1,36 @@
+package carbon.gui;
+
+import carbon.task.Deadline;
+import carbon.task.Event;
+import carbon.task.Task;
+
+/**
+ * A TaskRow is a copy of the details of a task that are shown in a row of the task table.
+ * It is copied when the task is added or changed, so that it can be read on the JavaFX application thread
+ * while the task itself is changed on another.
+ *
+ * @param type Label representing the type of the task.
+ * @param isDone Whether the task is done.
+ * @param description Description of the task.
+ * @param when When the task is due or takes place, including how it repeats, or "" for a Todo.
+ */
+record TaskRow(char type, boolean isDone, String description, String when) {
+    /**
+     * Returns a copy of the details of a task.
+     *
+     * @param task Task to be copied.
+     * @return The TaskRow.
+     */
+    static TaskRow of(Task task) {
+        String when = "";
+        if (task instanceof Deadline deadline) {
+            when = "by " + deadline.getDueBy();
+        } else if (task instanceof Event event) {
+            when = event.getStart() + " - " + event.getEnd();
+        }
+        if (task.isRecurring()) {
+            when += ", " + task.getRecurrence();
+        }
+        return new TaskRow(task.getType(), task.isDone(), task.getDescription(), when);
+    }
+}
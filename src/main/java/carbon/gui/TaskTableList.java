@@ -0,0 +1,175 @@
+package carbon.gui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import carbon.task.Task;
+import carbon.task.TaskListener;
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+/**
+ * An observable copy of the tasks in a TaskList, to be shown in a TableView.
+ * <p>
+ * Each change to the TaskList is passed on as a fine-grained change to the rows it affects, so the table
+ * only updates the cells of those rows, rather than rebuilding every row. Changes are made on the thread
+ * processing commands, so they are queued and applied on the JavaFX application thread, with every change
+ * queued by then applied at once. So a command changing many tasks at once (such as deleting every task
+ * that is done) only updates the table once.
+ */
+class TaskTableList extends ObservableListBase<TaskRow> implements TaskListener {
+    private static final int MAX_SEPARATE_REMOVALS = 64;
+
+    private final List<TaskRow> rows = new ArrayList<>();
+    // Changes that have not been applied yet, in order, guarded by itself
+    private final List<Change> pending = new ArrayList<>();
+
+    /**
+     * A change to a single row, or a reordering of every row.
+     */
+    private sealed interface Change {
+    }
+
+    private record Added(int index, TaskRow row) implements Change {
+    }
+
+    private record Changed(int index, TaskRow row) implements Change {
+    }
+
+    private record Removed(int index) implements Change {
+    }
+
+    private record Reordered(int[] newIndices) implements Change {
+    }
+
+    private void queue(Change change) {
+        boolean isFirst;
+        synchronized (pending) {
+            isFirst = pending.isEmpty();
+            pending.add(change);
+        }
+        if (isFirst) {
+            Platform.runLater(this::applyPending);
+        }
+    }
+
+    @Override
+    public void taskAdded(Task task, int index) {
+        queue(new Added(index, TaskRow.of(task)));
+    }
+
+    @Override
+    public void taskChanged(Task task, int index) {
+        queue(new Changed(index, TaskRow.of(task)));
+    }
+
+    @Override
+    public void taskRemoved(Task task, int index) {
+        queue(new Removed(index));
+    }
+
+    @Override
+    public void tasksReordered(int[] newIndices) {
+        queue(new Reordered(newIndices));
+    }
+
+    /**
+     * Applies every queued change to the rows, as few changes to the list as possible.
+     * A reordering is passed on as a change by itself, and the changes to single rows between them
+     * are passed on together.
+     */
+    private void applyPending() {
+        List<Change> changes;
+        synchronized (pending) {
+            changes = new ArrayList<>(pending);
+            pending.clear();
+        }
+        boolean isChanging = false;
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            if (change instanceof Reordered reordered) {
+                if (isChanging) {
+                    endChange();
+                    isChanging = false;
+                }
+                beginChange();
+                reorder(reordered.newIndices());
+                endChange();
+                continue;
+            }
+            if (!isChanging) {
+                beginChange();
+                isChanging = true;
+            }
+            if (change instanceof Added added) {
+                rows.add(added.index(), added.row());
+                nextAdd(added.index(), added.index() + 1);
+            } else if (change instanceof Changed changed) {
+                nextSet(changed.index(), rows.set(changed.index(), changed.row()));
+            } else {
+                int end = i + 1;
+                while (end < changes.size() && changes.get(end) instanceof Removed removed
+                        && removed.index() < ((Removed) changes.get(end - 1)).index()) {
+                    end++;
+                }
+                removeDescending(changes.subList(i, end));
+                i = end - 1;
+            }
+        }
+        if (isChanging) {
+            endChange();
+        }
+    }
+
+    /**
+     * Removes rows by indices in descending order, which are all indices of the rows before any were removed,
+     * such as when several tasks are deleted at once.
+     * <p>
+     * Removing a row shifts every row after it, so many rows are removed in a single pass instead,
+     * and passed on as a replacement of every row from the first one removed.
+     */
+    private void removeDescending(List<Change> removals) {
+        if (removals.size() <= MAX_SEPARATE_REMOVALS) {
+            for (Change removal : removals) {
+                int index = ((Removed) removal).index();
+                nextRemove(index, rows.remove(index));
+            }
+            return;
+        }
+        int first = ((Removed) removals.get(removals.size() - 1)).index();
+        List<TaskRow> replaced = new ArrayList<>(rows.subList(first, rows.size()));
+        boolean[] isRemoved = new boolean[replaced.size()];
+        for (Change removal : removals) {
+            isRemoved[((Removed) removal).index() - first] = true;
+        }
+        int kept = first;
+        for (int i = 0; i < isRemoved.length; i++) {
+            if (!isRemoved[i]) {
+                rows.set(kept++, replaced.get(i));
+            }
+        }
+        rows.subList(kept, rows.size()).clear();
+        nextReplace(first, kept, replaced);
+    }
+
+    private void reorder(int[] newIndices) {
+        TaskRow[] reordered = new TaskRow[rows.size()];
+        for (int i = 0; i < newIndices.length; i++) {
+            reordered[newIndices[i]] = rows.get(i);
+        }
+        for (int i = 0; i < reordered.length; i++) {
+            rows.set(i, reordered[i]);
+        }
+        nextPermutation(0, newIndices.length, newIndices);
+    }
+
+    @Override
+    public TaskRow get(int index) {
+        return rows.get(index);
+    }
+
+    @Override
+    public int size() {
+        return rows.size();
+    }
+}
@@ -0,0 +1,269 @@
+package carbon.server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import carbon.task.Deadline;
+import carbon.task.Event;
+import carbon.task.Task;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * CarbonServer serves Carbon over HTTP, so that several users can keep their own task lists on one machine.
+ * <p>
+ * The server only listens on the loopback address. Each user is identified by the name in the path,
+ * which is not case-sensitive:
+ * <ul>
+ *     <li><code>POST /users/{user}/messages</code> replies to the chat message in the request body,
+ *     as the GUI would</li>
+ *     <li><code>GET /users/{user}/tasks</code> returns the user's tasks as a JSON array</li>
+ * </ul>
+ * Every request must have the header <code>X-Carbon-Client</code>, and must not have an <code>Origin</code>
+ * header. So a web page in the user's browser cannot send requests to the server: a cross-origin request
+ * with a custom header needs a CORS preflight, which the server does not allow, and browsers send
+ * <code>Origin</code> with every cross-origin request that changes anything.
+ * <p>
+ * Each request is handled on a thread of its own, which is a virtual thread where the Java runtime
+ * supports them. Sessions are kept in a {@link SessionCache}.
+ */
+public class CarbonServer {
+    public static final int DEFAULT_PORT = 8080;
+    public static final int DEFAULT_MAX_SESSIONS = 64;
+    public static final String CLIENT_HEADER = "X-Carbon-Client";
+
+    private static final Pattern PATH_PATTERN = Pattern.compile("/users/([^/]+)/(messages|tasks)");
+    // Also keeps the name safe to use as a directory name
+    private static final Pattern USER_PATTERN = Pattern.compile("[a-z0-9_-]{1,64}");
+    // Names of devices on Windows, which cannot be used as directory names
+    private static final Pattern RESERVED_USER_PATTERN = Pattern.compile("con|prn|aux|nul|com[0-9]|lpt[0-9]");
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final SessionCache sessions;
+
+    /**
+     * Creates a CarbonServer listening on the loopback address. The server is not started until
+     * {@link #start()} is called.
+     *
+     * @param port Port to listen on, or 0 for any free port.
+     * @param dataDirectory Directory containing the data files of every user.
+     * @param maxSessions Maximum number of sessions kept in memory.
+     * @throws IOException If the port could not be bound.
+     */
+    public CarbonServer(int port, Path dataDirectory, int maxSessions) throws IOException {
+        sessions = new SessionCache(dataDirectory, maxSessions);
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/users/", this::handle);
+        executor = newThreadPerTaskExecutor();
+        server.setExecutor(executor);
+    }
+
+    /**
+     * Starts the server on the port given as the first argument (default {@value #DEFAULT_PORT}),
+     * saving data files to the directory given as the second argument (default "data/users").
+     *
+     * @param args Port and data directory, both optional.
+     * @throws IOException If the port could not be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Path dataDirectory = Path.of(args.length > 1 ? args[1] : "data/users");
+        CarbonServer server = new CarbonServer(port, dataDirectory, DEFAULT_MAX_SESSIONS);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        server.start();
+        System.out.println("Carbon is listening on http://localhost:" + server.getPort() + "/users/");
+    }
+
+    /**
+     * Returns an executor that runs each task on a new virtual thread,
+     * or on a new (or reused) platform thread if virtual threads are not supported.
+     */
+    private static ExecutorService newThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "carbon-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops accepting requests, then closes every session, saving their tasks.
+     */
+    public void stop() {
+        server.stop(0);
+        executor.shutdown();
+        sessions.close();
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return Port number.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Returns the number of sessions in memory.
+     *
+     * @return Number of sessions.
+     */
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            try {
+                route(exchange);
+            } catch (RuntimeException e) {
+                send(exchange, 500, "text/plain", "Something went wrong: " + e.getMessage());
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        Matcher matcher = PATH_PATTERN.matcher(exchange.getRequestURI().getPath());
+        if (!matcher.matches()) {
+            send(exchange, 404, "text/plain", "Not found");
+            return;
+        }
+        if (exchange.getRequestHeaders().containsKey("Origin")
+                || !exchange.getRequestHeaders().containsKey(CLIENT_HEADER)) {
+            send(exchange, 403, "text/plain", "Requests must have the header " + CLIENT_HEADER
+                    + ", and cannot be sent from a web page");
+            return;
+        }
+        // Lower-cased, as the directory names are not case-sensitive on every file system,
+        // and two sessions must never share a data file
+        String user = matcher.group(1).toLowerCase(Locale.ROOT);
+        if (!USER_PATTERN.matcher(user).matches()) {
+            send(exchange, 400, "text/plain", "User names may only contain letters, digits, '_' and '-'");
+            return;
+        }
+        if (RESERVED_USER_PATTERN.matcher(user).matches()) {
+            send(exchange, 400, "text/plain", "That user name is reserved");
+            return;
+        }
+        String method = exchange.getRequestMethod();
+        switch (matcher.group(2)) {
+        case "messages":
+            if (!method.equals("POST")) {
+                sendMethodNotAllowed(exchange, "POST");
+                break;
+            }
+            String input = readBody(exchange.getRequestBody());
+            String reply = sessions.withSession(user, carbon -> carbon.getResponse(input));
+            send(exchange, 200, "text/plain", reply);
+            break;
+        case "tasks":
+            if (!method.equals("GET")) {
+                sendMethodNotAllowed(exchange, "GET");
+                break;
+            }
+            String tasks = sessions.withSession(user, carbon -> toJson(carbon.getTasks()));
+            send(exchange, 200, "application/json", tasks);
+            break;
+        default:
+            throw new AssertionError(matcher.group(2));
+        }
+    }
+
+    private static String readBody(InputStream body) throws IOException {
+        return new String(body.readAllBytes(), StandardCharsets.UTF_8).strip();
+    }
+
+    private static void sendMethodNotAllowed(HttpExchange exchange, String allowedMethod) throws IOException {
+        exchange.getResponseHeaders().set("Allow", allowedMethod);
+        send(exchange, 405, "text/plain", "Method not allowed");
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns the tasks as a JSON array, where each task is an object with its number, id, type,
+     * completion status and description, and its dates/times in storage text form (see
+     * {@link carbon.task.Temporal#toStorageText()}).
+     *
+     * @param tasks Tasks to be converted.
+     * @return JSON array of the tasks.
+     */
+    static String toJson(List<Task> tasks) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            json.append(i == 0 ? "\n" : ",\n").append("{\"number\":").append(i + 1)
+                    .append(",\"id\":").append(task.getId())
+                    .append(",\"type\":\"").append(task.getType())
+                    .append("\",\"done\":").append(task.isDone())
+                    .append(",\"description\":");
+            appendString(json, task.getDescription());
+            if (task instanceof Deadline deadline) {
+                json.append(",\"by\":");
+                appendString(json, deadline.getDueBy().toStorageText());
+            } else if (task instanceof Event event) {
+                json.append(",\"from\":");
+                appendString(json, event.getStart().toStorageText());
+                json.append(",\"to\":");
+                appendString(json, event.getEnd().toStorageText());
+            }
+            json.append('}');
+        }
+        return json.append(tasks.isEmpty() ? "]" : "\n]").toString();
+    }
+
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+            case '"':
+            case '\\':
+                json.append('\\').append(c);
+                break;
+            case '\n':
+                json.append("\\n");
+                break;
+            default:
+                if (c < 0x20) {
+                    json.append(String.format("\\u%04x", (int) c));
+                } else {
+                    json.append(c);
+                }
+            }
+        }
+        json.append('"');
+    }
+}
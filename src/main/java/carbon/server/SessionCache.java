@@ -0,0 +1,191 @@
+package carbon.server;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import carbon.Carbon;
+
+/**
+ * A SessionCache keeps a Carbon session for each user who has used the server recently.
+ * <p>
+ * Each user's tasks are saved to their own data file, so sessions never share a TaskList.
+ * At most <code>maxSessions</code> sessions are kept in memory. When another user needs a session,
+ * the least recently used session is dropped and closed (saving its tasks). It is loaded again
+ * from its data file the next time that user sends a request, once it has been saved.
+ * The session is closed after the cache is released, so other users are not held up by its disk writes.
+ * <p>
+ * A Carbon session is not thread-safe, so requests from the same user are handled one at a time,
+ * while requests from different users are handled in parallel.
+ */
+class SessionCache {
+    private final Path dataDirectory;
+    private final int maxSessions;
+    // In access order, so the least recently used session comes first
+    private final LinkedHashMap<String, Session> sessions = new LinkedHashMap<>(16, 0.75f, true);
+    // Sessions that have been dropped but may not have been closed yet, by user
+    private final HashMap<String, Session> evicted = new HashMap<>();
+    private boolean isClosed;
+
+    private static class Session {
+        private final String filePath;
+        private final CompletableFuture<Void> closed = new CompletableFuture<>();
+        // The user's previous session, which must be closed before this one loads the data file
+        private Session previous;
+        private Carbon carbon;
+        private boolean isClosed;
+
+        private Session(String filePath, Session previous) {
+            this.filePath = filePath;
+            this.previous = previous;
+        }
+
+        /**
+         * Loads the session on first use, so that one user's data file is not read
+         * while other users are waiting for the cache.
+         */
+        private Carbon carbon() {
+            if (carbon == null) {
+                awaitPrevious();
+                carbon = new Carbon(filePath);
+            }
+            return carbon;
+        }
+
+        private void awaitPrevious() {
+            if (previous != null) {
+                previous.closed.join();
+                previous = null;
+            }
+        }
+
+        /**
+         * Closes the session, saving its tasks. A session that was never loaded is only counted as closed
+         * once the previous session is, so that a later session waiting for this one also waits for that one.
+         */
+        private void close() {
+            try {
+                awaitPrevious();
+                if (carbon != null) {
+                    carbon.close();
+                }
+            } finally {
+                isClosed = true;
+                closed.complete(null);
+            }
+        }
+    }
+
+    /**
+     * Creates a SessionCache that saves each user's tasks to <code>dataDirectory/user/tasks.bin</code>.
+     *
+     * @param dataDirectory Directory containing the data files of every user.
+     * @param maxSessions Maximum number of sessions kept in memory.
+     */
+    SessionCache(Path dataDirectory, int maxSessions) {
+        if (maxSessions < 1) {
+            throw new IllegalArgumentException("At least one session must be kept in memory");
+        }
+        this.dataDirectory = dataDirectory;
+        this.maxSessions = maxSessions;
+    }
+
+    /**
+     * Runs an action on a user's session, loading the session if it is not in memory.
+     * No other action runs on the same session at the same time.
+     *
+     * @param user Name of the user, which must be a valid directory name.
+     * @param action Action to be run.
+     * @return Result of the action.
+     */
+    <T> T withSession(String user, Function<Carbon, T> action) {
+        while (true) {
+            List<Map.Entry<String, Session>> dropped = new ArrayList<>();
+            Session session = getSession(user, dropped);
+            for (Map.Entry<String, Session> entry : dropped) {
+                closeEvicted(entry.getKey(), entry.getValue());
+            }
+            synchronized (session) {
+                // The session may have been evicted after it was looked up,
+                // in which case its tasks have been saved and it is loaded again
+                if (!session.isClosed) {
+                    return action.apply(session.carbon());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the user's session, creating it if it is not in memory, and adds the sessions dropped
+     * to make room for it to <code>dropped</code>, to be closed by the caller.
+     */
+    private synchronized Session getSession(String user, List<Map.Entry<String, Session>> dropped) {
+        if (isClosed) {
+            throw new IllegalStateException("Server has been stopped");
+        }
+        Session session = sessions.get(user);
+        if (session != null) {
+            return session;
+        }
+        session = new Session(dataDirectory.resolve(user).resolve("tasks.bin").toString(), evicted.get(user));
+        sessions.put(user, session);
+        Iterator<Map.Entry<String, Session>> iterator = sessions.entrySet().iterator();
+        while (sessions.size() > maxSessions) {
+            Map.Entry<String, Session> eldest = iterator.next();
+            iterator.remove();
+            evicted.put(eldest.getKey(), eldest.getValue());
+            dropped.add(Map.entry(eldest.getKey(), eldest.getValue()));
+        }
+        return session;
+    }
+
+    private void closeEvicted(String user, Session session) {
+        try {
+            synchronized (session) {
+                session.close();
+            }
+        } finally {
+            synchronized (this) {
+                evicted.remove(user, session);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of sessions in memory.
+     *
+     * @return Number of sessions.
+     */
+    synchronized int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Closes every session, saving their tasks. No sessions can be used afterwards.
+     */
+    void close() {
+        List<Session> remaining;
+        List<Session> closing;
+        synchronized (this) {
+            isClosed = true;
+            remaining = new ArrayList<>(sessions.values());
+            sessions.clear();
+            closing = new ArrayList<>(evicted.values());
+        }
+        for (Session session : remaining) {
+            synchronized (session) {
+                session.close();
+            }
+        }
+        // Sessions evicted by requests still in progress are closed by those requests
+        for (Session session : closing) {
+            session.closed.join();
+        }
+    }
+}
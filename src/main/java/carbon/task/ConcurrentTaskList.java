@@ -0,0 +1,401 @@
+package carbon.task;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import carbon.utils.Parser;
+
+/**
+ * A ConcurrentTaskList is a TaskList that can be shared by several threads.
+ * Tasks can be listed without locking, while changes are made by one thread at a time.
+ * <p>
+ * Two copies of the TaskList are kept. Readers only ever use the copy that is currently visible,
+ * which does not change while they are using it, so they always see a consistent snapshot of the tasks.
+ * A writer changes the hidden copy first, makes it visible, waits for the readers still using the
+ * other copy to finish, and then makes the same change to that copy (the "left-right" technique).
+ * Readers never wait, and each copy keeps its own indices, so listing and finding tasks
+ * are as fast as with a single TaskList. The price is that every task is kept in memory twice.
+ * <p>
+ * Only the primary copy is saved to storage, so each change is recorded once.
+ * <p>
+ * Every change must have the same effect on both copies, so anything that could differ between the two,
+ * such as the current date or the result of parsing the user input, is worked out once and passed to both.
+ * If a change fails on either copy, the copies may have diverged (a TaskList may have been partly changed
+ * before failing), so the replica is rebuilt from the primary copy. A change that fails on the first copy
+ * is not made to the second.
+ */
+public class ConcurrentTaskList {
+    private final TaskList primary;
+    private final TaskList[] copies;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    // Readers announce themselves on one of two counters, so that a writer can wait for
+    // the readers that arrived before it switched copies, without being held up by later readers
+    private final AtomicInteger[] readerCounts = {new AtomicInteger(), new AtomicInteger()};
+    private volatile int visibleIndex;
+    private volatile int readerCountIndex;
+
+    /**
+     * Creates a ConcurrentTaskList containing the tasks of <code>primary</code>,
+     * which saves every change through <code>primary</code>.
+     * <code>primary</code> must not be used directly afterwards.
+     *
+     * @param primary TaskList, usually loaded from storage.
+     */
+    public ConcurrentTaskList(TaskList primary) {
+        this.primary = primary;
+        copies = new TaskList[] {primary, createReplica(primary)};
+    }
+
+    private static TaskList createReplica(TaskList primary) {
+        TaskList replica = new TaskList();
+        for (Task task : primary.getTasks()) {
+            replica.add(task.copy());
+        }
+        replica.reserveIds(primary.getNextId());
+        replica.setPageSize(primary.getPageSize());
+        return replica;
+    }
+
+    /**
+     * Reads from a TaskList, possibly throwing a checked exception.
+     */
+    private interface Reader<T, E extends Exception> {
+        T apply(TaskList list) throws E;
+    }
+
+    /**
+     * Runs <code>reader</code> on the visible copy, without locking.
+     * <code>reader</code> must not change the TaskList.
+     */
+    private <T, E extends Exception> T read(Reader<T, E> reader) throws E {
+        AtomicInteger readerCount = readerCounts[readerCountIndex];
+        readerCount.incrementAndGet();
+        try {
+            return reader.apply(copies[visibleIndex]);
+        } finally {
+            readerCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Runs <code>writer</code> on both copies, one at a time, and returns the result from the primary copy.
+     * <p>
+     * If <code>writer</code> throws an exception on either copy, the replica is rebuilt from the primary copy,
+     * and the exception is only thrown if it was thrown by the primary copy. If it throws an exception on
+     * the first copy, it is not run on the second.
+     */
+    <T> T write(Function<TaskList, T> writer) {
+        writeLock.lock();
+        try {
+            int hiddenIndex = 1 - visibleIndex;
+            T hiddenResult;
+            try {
+                hiddenResult = writer.apply(copies[hiddenIndex]);
+            } catch (RuntimeException | Error e) {
+                // Readers have not seen the hidden copy, and the visible copy has not been changed
+                rebuildReplica();
+                throw e;
+            }
+            makeVisible(hiddenIndex);
+
+            T result;
+            try {
+                result = writer.apply(copies[1 - hiddenIndex]);
+            } catch (RuntimeException | Error e) {
+                rebuildReplica();
+                if (copies[hiddenIndex] != primary) {
+                    throw e;
+                }
+                return hiddenResult;
+            }
+            return copies[hiddenIndex] == primary ? hiddenResult : result;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Makes a copy visible, and waits for every reader that may still be using the other one.
+     */
+    private void makeVisible(int index) {
+        visibleIndex = index;
+        int previousCountIndex = readerCountIndex;
+        awaitReaders(1 - previousCountIndex);
+        readerCountIndex = 1 - previousCountIndex;
+        awaitReaders(previousCountIndex);
+    }
+
+    /**
+     * Replaces the replica with a new copy of the primary copy, after the copies have diverged.
+     */
+    private void rebuildReplica() {
+        int primaryIndex = copies[0] == primary ? 0 : 1;
+        if (visibleIndex != primaryIndex) {
+            makeVisible(primaryIndex);
+        }
+        copies[1 - primaryIndex] = createReplica(primary);
+    }
+
+    private void awaitReaders(int countIndex) {
+        while (readerCounts[countIndex].get() != 0) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Sets the number of tasks listed per page.
+     *
+     * @param pageSize Number of tasks per page.
+     * @see TaskList#setPageSize(int)
+     */
+    public void setPageSize(int pageSize) {
+        write(list -> {
+            list.setPageSize(pageSize);
+            return null;
+        });
+    }
+
+    /**
+     * Returns a copy of every task, in the order in which they are numbered.
+     * The copies do not change when the ConcurrentTaskList does.
+     *
+     * @return Copies of the tasks.
+     */
+    public List<Task> getTasks() {
+        return read(list -> list.getTasks().stream().map(Task::copy).toList());
+    }
+
+    /**
+     * Returns <code>true</code> if there are no tasks, <code>false</code> otherwise.
+     *
+     * @return Whether the ConcurrentTaskList is empty.
+     */
+    public boolean isEmpty() {
+        return read(TaskList::isEmpty);
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return Number of tasks.
+     */
+    public int size() {
+        return read(TaskList::size);
+    }
+
+    /**
+     * Lists all tasks.
+     *
+     * @see TaskList#listTasks()
+     */
+    public String listTasks() {
+        return read(TaskList::listTasks);
+    }
+
+    /**
+     * Writes every task to <code>out</code>, one line at a time. Changes wait until every line has been written,
+     * so <code>out</code> should not block for long.
+     *
+     * @param out Destination of the lines.
+     * @param indent Text written at the start of each line.
+     * @throws IOException If <code>out</code> could not be written to.
+     * @see TaskList#writeTasks(Appendable, String)
+     */
+    public void writeTasks(Appendable out, String indent) throws IOException {
+        read(list -> {
+            list.writeTasks(out, indent);
+            return null;
+        });
+    }
+
+    /**
+     * Lists one page of tasks.
+     *
+     * @see TaskList#listTasks(int)
+     */
+    public String listTasks(int page) {
+        return read(list -> list.listTasks(page));
+    }
+
+    /**
+     * Lists the tasks containing some text.
+     *
+     * @see TaskList#listTasks(String)
+     */
+    public String listTasks(String arg) {
+        return read(list -> list.listTasks(arg));
+    }
+
+    /**
+     * Lists the tasks in a view.
+     *
+     * @see TaskList#listTasksInView(String)
+     */
+    public String listTasksInView(String arg) {
+        return read(list -> list.listTasksInView(arg));
+    }
+
+    /**
+     * Lists the tasks within a period.
+     *
+     * @see TaskList#listTasksBetween(String)
+     */
+    public String listTasksBetween(String arg) {
+        return read(list -> list.listTasksBetween(arg));
+    }
+
+    /**
+     * Lists the tasks due within a period from now.
+     *
+     * @see TaskList#listDueTasks(String)
+     */
+    public String listDueTasks(String arg) {
+        return read(list -> list.listDueTasks(arg));
+    }
+
+    /**
+     * Lists the pairs of overlapping Events.
+     *
+     * @see TaskList#listConflicts()
+     */
+    public String listConflicts() {
+        return read(TaskList::listConflicts);
+    }
+
+    /**
+     * Lists one page of archived tasks. The archive is only kept by the primary copy,
+     * and is loaded while holding the write lock.
+     *
+     * @see TaskList#listArchive(int)
+     */
+    public String listArchive(int page) {
+        writeLock.lock();
+        try {
+            return primary.listArchive(page);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a listener that is told about every change to the tasks, while holding the write lock.
+     * Every task already in the list is first passed to {@link TaskListener#taskAdded(Task, int)}.
+     * <p>
+     * Only the primary copy is listened to, so each change is reported once.
+     *
+     * @param listener Listener to be added.
+     * @see TaskList#addListener(TaskListener)
+     */
+    public void addListener(TaskListener listener) {
+        writeLock.lock();
+        try {
+            List<Task> tasks = primary.getTasks();
+            for (int i = 0; i < tasks.size(); i++) {
+                listener.taskAdded(tasks.get(i), i);
+            }
+            primary.addListener(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes a listener added by {@link #addListener(TaskListener)}.
+     *
+     * @param listener Listener to be removed.
+     */
+    public void removeListener(TaskListener listener) {
+        writeLock.lock();
+        try {
+            primary.removeListener(listener);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a Todo.
+     *
+     * @see TaskList#addTodo(String)
+     */
+    public String addTodo(String arg) {
+        return write(list -> list.addTodo(arg));
+    }
+
+    /**
+     * Adds a Deadline.
+     *
+     * @see TaskList#addDeadline(String)
+     */
+    public String addDeadline(String arg) {
+        Deadline deadline = Parser.parseDeadline(arg);
+        return write(list -> list.addTask(list == primary ? deadline : deadline.copy()));
+    }
+
+    /**
+     * Adds an Event.
+     *
+     * @see TaskList#addEvent(String)
+     */
+    public String addEvent(String arg) {
+        Event event = Parser.parseEvent(arg);
+        return write(list -> list.addTask(list == primary ? event : event.copy()));
+    }
+
+    /**
+     * Marks one or more tasks as done.
+     *
+     * @see TaskList#mark(String)
+     */
+    public String mark(String arg) {
+        return write(list -> list.mark(arg));
+    }
+
+    /**
+     * Unmarks one or more tasks as done.
+     *
+     * @see TaskList#unmark(String)
+     */
+    public String unmark(String arg) {
+        return write(list -> list.unmark(arg));
+    }
+
+    /**
+     * Deletes one or more tasks.
+     *
+     * @see TaskList#delete(String)
+     */
+    public String delete(String arg) {
+        return write(list -> list.delete(arg));
+    }
+
+    /**
+     * Moves all marked tasks into the archive.
+     *
+     * @see TaskList#archive(String)
+     */
+    public String archive(String arg) {
+        return write(list -> {
+            String message = list.archive(arg);
+            if (list != primary) {
+                // Only the primary copy's archive is ever listed
+                list.forgetArchive();
+            }
+            return message;
+        });
+    }
+
+    /**
+     * Sorts the tasks by their date/time.
+     *
+     * @see TaskList#sortTasks()
+     */
+    public String sortTasks() {
+        long referenceEpochDay = LocalDate.now().toEpochDay();
+        return write(list -> list.sortTasks(referenceEpochDay));
+    }
+}
@@ -4,7 +4,9 @@ package carbon.task;
  * Deadline is a Task with a due date/time.
  */
 public class Deadline extends Task {
-    private final Temporal dueBy;
+    private final Temporal firstDueBy;
+    // Due date/time of the current occurrence
+    private Temporal dueBy;
 
     /**
      * Creates a Deadline with the specified description and due date/time.
@@ -13,14 +15,57 @@ public class Deadline extends Task {
      * @param dueBy Due date/time of the Deadline.
      */
     public Deadline(String description, String dueBy) {
+        this(description, Temporal.parse(dueBy));
+    }
+
+    /**
+     * Creates a Deadline with the specified description and already parsed due date/time.
+     *
+     * @param description Description of the Deadline.
+     * @param dueBy Due date/time of the Deadline.
+     */
+    public Deadline(String description, Temporal dueBy) {
         super('D', description);
-        this.dueBy = Temporal.parse(dueBy);
+        this.firstDueBy = dueBy;
+        this.dueBy = dueBy;
 
         if (this.dueBy.getType() == TemporalType.TEXT) {
             warningMessage = "\n" + Temporal.TEMPORAL_PARSE_WARNING;
         }
     }
 
+    @Override
+    public Deadline copy() {
+        Deadline copy = new Deadline(description, firstDueBy);
+        copy.setRecurrence(recurrence, occurrence);
+        copy.isDone = isDone;
+        copy.setId(getId());
+        return copy;
+    }
+
+    /**
+     * Returns a Deadline for one occurrence of this Deadline, which does not repeat.
+     *
+     * @param index Index of the occurrence.
+     * @return Deadline due on the date/time of the occurrence.
+     */
+    Deadline occurrenceAt(int index) {
+        Deadline copy = new Deadline(description, recurrence.occurrence(firstDueBy, index));
+        copy.isDone = isOccurrenceDone(index);
+        copy.setId(getId());
+        return copy;
+    }
+
+    @Override
+    protected Temporal getFirstDateTime() {
+        return firstDueBy;
+    }
+
+    @Override
+    protected void updateOccurrence() {
+        dueBy = recurrence == null ? firstDueBy : recurrence.occurrence(firstDueBy, occurrence);
+    }
+
     /**
      * {@inheritDoc}
      * A Deadline's datetime is that of its due date/time.
@@ -30,8 +75,27 @@ public class Deadline extends Task {
         return dueBy;
     }
 
+    /**
+     * Returns the due date/time of the current occurrence.
+     *
+     * @return Due date/time.
+     */
+    public Temporal getDueBy() {
+        return dueBy;
+    }
+
+    /**
+     * Returns the due date/time of the first occurrence, which is the same as {@link #getDueBy()}
+     * if the Deadline does not repeat.
+     *
+     * @return Due date/time of the first occurrence.
+     */
+    public Temporal getFirstDueBy() {
+        return firstDueBy;
+    }
+
     public String getStorageText() {
-        return super.getStorageText() + "\n" + dueBy;
+        return super.getStorageText() + "\n" + firstDueBy.toStorageText();
     }
 
     /**
@@ -40,6 +104,6 @@ public class Deadline extends Task {
      */
     @Override
     public String toString() {
-        return String.format("%s (by: %s)", super.toString(), dueBy);
+        return String.format("%s (by: %s)%s", super.toString(), dueBy, formatRecurrence());
     }
 }
@@ -4,8 +4,11 @@ package carbon.task;
  * Event is a Task with a start and end date/time.
  */
 public class Event extends Task {
-    private final Temporal start;
-    private final Temporal end;
+    private final Temporal firstStart;
+    private final Temporal firstEnd;
+    // Start and end date/time of the current occurrence
+    private Temporal start;
+    private Temporal end;
 
     /**
      * Creates an Event with the specified description, start date/time, and end date/time.
@@ -15,9 +18,22 @@ public class Event extends Task {
      * @param end End date/time of the Event.
      */
     public Event(String description, String start, String end) {
+        this(description, Temporal.parse(start), Temporal.parse(end));
+    }
+
+    /**
+     * Creates an Event with the specified description and already parsed start and end date/time.
+     *
+     * @param description Description of the Event.
+     * @param start Start date/time of the Event.
+     * @param end End date/time of the Event.
+     */
+    public Event(String description, Temporal start, Temporal end) {
         super('E', description);
-        this.start = Temporal.parse(start);
-        this.end = Temporal.parse(end);
+        this.firstStart = start;
+        this.firstEnd = end;
+        this.start = start;
+        this.end = end;
 
         if (this.start.compareTo(this.end) > 0) {
             warningMessage = "\nWARNING: Start date/time is after end date/time.";
@@ -28,8 +44,80 @@ public class Event extends Task {
         }
     }
 
+    /**
+     * Returns the start date/time of the current occurrence.
+     *
+     * @return Start date/time.
+     */
+    public Temporal getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end date/time of the current occurrence.
+     *
+     * @return End date/time.
+     */
+    public Temporal getEnd() {
+        return end;
+    }
+
+    /**
+     * Returns the start date/time of the first occurrence, which is the same as {@link #getStart()}
+     * if the Event does not repeat.
+     *
+     * @return Start date/time of the first occurrence.
+     */
+    public Temporal getFirstStart() {
+        return firstStart;
+    }
+
+    /**
+     * Returns the end date/time of the first occurrence, which is the same as {@link #getEnd()}
+     * if the Event does not repeat.
+     *
+     * @return End date/time of the first occurrence.
+     */
+    public Temporal getFirstEnd() {
+        return firstEnd;
+    }
+
     public String getStorageText() {
-        return super.getStorageText() + "\n" + start + "\n" + end;
+        return super.getStorageText() + "\n" + firstStart.toStorageText() + "\n" + firstEnd.toStorageText();
+    }
+
+    @Override
+    public Event copy() {
+        Event copy = new Event(description, firstStart, firstEnd);
+        copy.setRecurrence(recurrence, occurrence);
+        copy.isDone = isDone;
+        copy.setId(getId());
+        return copy;
+    }
+
+    /**
+     * Returns an Event for one occurrence of this Event, which does not repeat.
+     *
+     * @param index Index of the occurrence.
+     * @return Event starting and ending on the date/time of the occurrence.
+     */
+    Event occurrenceAt(int index) {
+        Event copy = new Event(description, recurrence.occurrence(firstStart, index),
+                recurrence.occurrence(firstEnd, index));
+        copy.isDone = isOccurrenceDone(index);
+        copy.setId(getId());
+        return copy;
+    }
+
+    @Override
+    protected Temporal getFirstDateTime() {
+        return firstStart;
+    }
+
+    @Override
+    protected void updateOccurrence() {
+        start = recurrence == null ? firstStart : recurrence.occurrence(firstStart, occurrence);
+        end = recurrence == null ? firstEnd : recurrence.occurrence(firstEnd, occurrence);
     }
 
     /**
@@ -47,6 +135,6 @@ public class Event extends Task {
      */
     @Override
     public String toString() {
-        return String.format("%s (from: %s, to: %s)", super.toString(), start, end);
+        return String.format("%s (from: %s, to: %s)%s", super.toString(), start, end, formatRecurrence());
     }
 }
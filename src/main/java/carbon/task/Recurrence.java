@@ -0,0 +1,134 @@
+package carbon.task;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+import carbon.exceptions.InvalidFileFormatException;
+
+/**
+ * A Recurrence is a rule by which a Deadline or Event repeats, such as "every week until 1 Jan 2027".
+ * <p>
+ * Occurrences are numbered from 0, which is the first occurrence of the task. Occurrence <i>k</i> is
+ * <i>k</i> times the interval after the first, which is computed from the first occurrence each time
+ * (so an event on the 31st of every month falls on the last day of shorter months, without drifting).
+ * The series ends with the last occurrence that starts no later than its end date/time.
+ */
+public final class Recurrence {
+    private final ChronoUnit unit;
+    private final int interval;
+    private final Temporal until;
+    // Epoch second just after the last second on which an occurrence can start
+    private final long untilKey;
+
+    /**
+     * Creates a Recurrence that repeats every <code>interval</code> units until <code>until</code>.
+     *
+     * @param unit {@link ChronoUnit#DAYS}, {@link ChronoUnit#WEEKS}, {@link ChronoUnit#MONTHS}
+     *     or {@link ChronoUnit#YEARS}.
+     * @param interval Number of units between occurrences, which should be positive.
+     * @param until Date or datetime of the end of the series (inclusive).
+     * @throws IllegalArgumentException If any argument is not valid.
+     */
+    public Recurrence(ChronoUnit unit, int interval, Temporal until) {
+        if (unit != ChronoUnit.DAYS && unit != ChronoUnit.WEEKS && unit != ChronoUnit.MONTHS
+                && unit != ChronoUnit.YEARS) {
+            throw new IllegalArgumentException("Tasks can only repeat in days, weeks, months or years");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("Interval should be positive");
+        }
+        if (!TaskIntervalIndex.isFixed(until)) {
+            throw new IllegalArgumentException("The end of the series should be a date or datetime");
+        }
+        this.unit = unit;
+        this.interval = interval;
+        this.until = until;
+        untilKey = TaskIntervalIndex.endOf(until, true, 0);
+    }
+
+    public Temporal getUntil() {
+        return until;
+    }
+
+    /**
+     * Returns the date/time of an occurrence.
+     *
+     * @param first Date/time of the first occurrence.
+     * @param index Index of the occurrence.
+     * @return Date/time of the occurrence.
+     */
+    public Temporal occurrence(Temporal first, long index) {
+        return index == 0 ? first : first.plus(index * interval, unit);
+    }
+
+    /**
+     * Returns <code>true</code> if the series includes the occurrence, i.e. it starts no later than
+     * the end of the series.
+     *
+     * @param first Date/time of the first occurrence.
+     * @param index Index of the occurrence.
+     * @return Whether the occurrence is part of the series.
+     */
+    public boolean includes(Temporal first, long index) {
+        return index >= 0 && occurrence(first, index).getSortKey(0) < untilKey;
+    }
+
+    /**
+     * Returns the index of an occurrence that starts no later than <code>key</code>, without
+     * computing every occurrence before it. This is at most the index of the last such occurrence,
+     * and is 0 if there is none.
+     *
+     * @param first Date/time of the first occurrence.
+     * @param key Epoch second.
+     * @return Index of an occurrence starting no later than <code>key</code>.
+     */
+    public long indexNotAfter(Temporal first, long key) {
+        // Every unit is at most this long, so the occurrence is never later than the key
+        long longestUnit = switch (unit) {
+            case DAYS -> Temporal.SECONDS_PER_DAY;
+            case WEEKS -> 7 * Temporal.SECONDS_PER_DAY;
+            case MONTHS -> 31 * Temporal.SECONDS_PER_DAY;
+            default -> 366 * Temporal.SECONDS_PER_DAY;
+        };
+        return Math.max(0, (key - first.getSortKey(0)) / (longestUnit * interval));
+    }
+
+    /**
+     * Returns a String, formatted for storage of the Recurrence, such as "WEEKS 1 DATE:2027-01-01".
+     *
+     * @return Representation of the Recurrence in storage.
+     */
+    public String toStorageText() {
+        return unit.name() + " " + interval + " " + until.toStorageText();
+    }
+
+    /**
+     * Parses a Recurrence from its representation in storage.
+     *
+     * @param storageText Text returned by {@link #toStorageText()}.
+     * @return The Recurrence.
+     * @throws InvalidFileFormatException If the text does not represent a Recurrence.
+     */
+    public static Recurrence fromStorageText(String storageText) {
+        String[] parts = storageText.split(" ", 3);
+        try {
+            return new Recurrence(ChronoUnit.valueOf(parts[0]), Integer.parseInt(parts[1]),
+                    Temporal.fromStorageText(parts[2]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new InvalidFileFormatException();
+        }
+    }
+
+    /**
+     * Returns a String representation of the Recurrence, such as "every 2 weeks until 1 Jan 2027".
+     *
+     * @return String representation of the Recurrence.
+     */
+    @Override
+    public String toString() {
+        String unitName = unit.name().toLowerCase(Locale.ROOT);
+        return interval == 1
+                ? String.format("every %s until %s", unitName.substring(0, unitName.length() - 1), until)
+                : String.format("every %d %s until %s", interval, unitName, until);
+    }
+}
@@ -0,0 +1,224 @@
+package carbon.task;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A ReminderScheduler reminds the user of each task that is not done yet, shortly before it is due.
+ * <p>
+ * A Deadline is due when specified, and an Event is due when it starts. A task is reminded of
+ * <code>leadTime</code> before it is due, or at the start of the day if it has a date but no time.
+ * Tasks whose date/time is a time without a date or text are not reminded of, and neither are tasks
+ * that are already due when they are added.
+ * <p>
+ * The ReminderScheduler listens to a TaskList (see {@link ConcurrentTaskList#addListener(TaskListener)}),
+ * and keeps the reminders in a priority queue ordered by when they are due, so each change takes
+ * O(log n) time and the tasks are never rescanned. A reminder that is cancelled (because its task
+ * was marked as done or deleted) is left in the queue and skipped when it reaches the front,
+ * unless cancelled reminders come to outnumber the others, in which case the queue is rebuilt.
+ * A task that is changed, such as a recurring task moving on to its next occurrence when marked as done,
+ * has its reminder cancelled and replaced by one for its new date/time.
+ * <p>
+ * A single background thread waits for the earliest reminder, and passes the text of each
+ * reminder that is due to the notifier. The wait is rescheduled whenever the earliest reminder
+ * changes, and the cancelled waits are removed from the thread's queue straight away.
+ */
+public class ReminderScheduler implements TaskListener, AutoCloseable {
+    private static final long DEFAULT_LEAD_MINUTES = 15;
+    private static final int MIN_QUEUE_SIZE_TO_REBUILD = 64;
+
+    private final Consumer<String> notifier;
+    private final long leadSeconds;
+    private final Clock clock;
+    private final ScheduledThreadPoolExecutor executor;
+    private final PriorityQueue<Reminder> queue = new PriorityQueue<>(Comparator.comparingLong(Reminder::time));
+    // The current reminder for each task id. Reminders in the queue that are not current have been cancelled.
+    private final HashMap<Long, Reminder> pending = new HashMap<>();
+    private ScheduledFuture<?> nextRun;
+    private long nextRunTime = Long.MAX_VALUE;
+    private boolean isClosed;
+
+    /**
+     * A reminder of a task, to be sent at <code>time</code> (in epoch seconds).
+     */
+    private record Reminder(long taskId, long time, String text) {
+    }
+
+    /**
+     * Creates a ReminderScheduler that passes the text of each reminder to <code>notifier</code>,
+     * on a background thread.
+     * <p>
+     * The number of minutes before a task is due that it is reminded of is read from the system property
+     * <code>carbon.reminderLeadMinutes</code> (by default, {@value #DEFAULT_LEAD_MINUTES}).
+     *
+     * @param notifier Receives the text of each reminder.
+     */
+    public ReminderScheduler(Consumer<String> notifier) {
+        this(notifier, Duration.ofMinutes(Long.getLong("carbon.reminderLeadMinutes", DEFAULT_LEAD_MINUTES)),
+                Clock.systemDefaultZone());
+    }
+
+    ReminderScheduler(Consumer<String> notifier, Duration leadTime, Clock clock) {
+        this.notifier = notifier;
+        this.leadSeconds = leadTime.toSeconds();
+        this.clock = clock;
+        executor = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "carbon-reminders");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.setRemoveOnCancelPolicy(true);
+    }
+
+    private long nowMillis() {
+        return LocalDateTime.now(clock).toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    /**
+     * Returns the reminder for a task, or <code>null</code> if the task should not be reminded of.
+     */
+    private Reminder reminderFor(Task task) {
+        Temporal dateTime = task.toDateTime();
+        if (task.isDone() || task instanceof Todo || !TaskIntervalIndex.isFixed(dateTime)) {
+            return null;
+        }
+        long dueTime = TaskIntervalIndex.dueTimeOf(task, 0);
+        if (dueTime * 1000 <= nowMillis()) {
+            return null;
+        }
+        long time = dateTime.getType() == TemporalType.DATE ? dateTime.getSortKey(0) : dueTime - leadSeconds;
+        String text = String.format("Reminder! This %s soon:\n   #%d %s",
+                task instanceof Event ? "starts" : "is due", task.getId(), task);
+        return new Reminder(task.getId(), time, text);
+    }
+
+    @Override
+    public synchronized void taskAdded(Task task, int index) {
+        addReminder(task);
+        scheduleEarliest();
+    }
+
+    @Override
+    public synchronized void taskChanged(Task task, int index) {
+        pending.remove(task.getId());
+        addReminder(task);
+        rebuildQueueIfMostlyCancelled();
+        scheduleEarliest();
+    }
+
+    @Override
+    public synchronized void taskRemoved(Task task, int index) {
+        if (pending.remove(task.getId()) != null) {
+            rebuildQueueIfMostlyCancelled();
+            scheduleEarliest();
+        }
+    }
+
+    private void addReminder(Task task) {
+        Reminder reminder = reminderFor(task);
+        if (reminder != null && !isClosed) {
+            pending.put(reminder.taskId(), reminder);
+            queue.add(reminder);
+        }
+    }
+
+    private void rebuildQueueIfMostlyCancelled() {
+        if (queue.size() > MIN_QUEUE_SIZE_TO_REBUILD && queue.size() > 2 * pending.size()) {
+            queue.clear();
+            queue.addAll(pending.values());
+        }
+    }
+
+    /**
+     * Returns the number of reminders that have not been sent yet.
+     *
+     * @return Number of pending reminders.
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Returns the number of runs of {@link #sendDueReminders()} waiting in the background thread's queue.
+     */
+    int getScheduledCount() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Drops the cancelled reminders from the front of the queue, and runs {@link #sendDueReminders()}
+     * when the earliest remaining reminder is due, or not at all if there is none.
+     */
+    private void scheduleEarliest() {
+        if (isClosed) {
+            return;
+        }
+        while (!queue.isEmpty() && !queue.peek().equals(pending.get(queue.peek().taskId()))) {
+            queue.poll();
+        }
+        if (queue.isEmpty()) {
+            if (nextRun != null) {
+                nextRun.cancel(false);
+            }
+            nextRun = null;
+            nextRunTime = Long.MAX_VALUE;
+        } else if (queue.peek().time() != nextRunTime) {
+            schedule(queue.peek().time());
+        }
+    }
+
+    /**
+     * Runs {@link #sendDueReminders()} at <code>time</code> (in epoch seconds), instead of when it was
+     * previously due to run.
+     */
+    private void schedule(long time) {
+        if (nextRun != null) {
+            nextRun.cancel(false);
+        }
+        nextRunTime = time;
+        nextRun = executor.schedule(this::sendDueReminders, time * 1000 - nowMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void sendDueReminders() {
+        List<String> texts = new ArrayList<>();
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+            long now = nowMillis() / 1000;
+            while (!queue.isEmpty() && queue.peek().time() <= now) {
+                Reminder reminder = queue.poll();
+                if (pending.remove(reminder.taskId(), reminder)) {
+                    texts.add(reminder.text());
+                }
+            }
+            nextRun = null;
+            nextRunTime = Long.MAX_VALUE;
+            scheduleEarliest();
+        }
+        // Sent without holding the lock, so that the notifier cannot hold up changes to the tasks
+        texts.forEach(notifier);
+    }
+
+    /**
+     * Stops sending reminders, and stops the background thread.
+     */
+    @Override
+    public synchronized void close() {
+        isClosed = true;
+        queue.clear();
+        pending.clear();
+        executor.shutdownNow();
+    }
+}
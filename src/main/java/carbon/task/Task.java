@@ -3,12 +3,29 @@ package carbon.task;
 /**
  * Task is an entry in the task list.
  * Each Task has a description and a completion status (isDone).
+ * <p>
+ * A Task is also given an id when it is added to a TaskList, which never changes and is never
+ * given to another task, unlike its number in the TaskList.
+ * <p>
+ * A Deadline or Event may repeat by a {@link Recurrence}, in which case the whole series is a single Task.
+ * Only the current occurrence (the first one that has not been done) is listed. Marking the Task as done
+ * moves it on to the next occurrence, and only marks it as done once the last occurrence has been done.
  */
 public abstract class Task implements Comparable<Task> {
+    /**
+     * The id of a Task that has not been given an id yet. Ids start from 1.
+     */
+    public static final long NO_ID = 0;
+
     protected final char type;
     protected String description;
     protected boolean isDone;
     protected String warningMessage = "";
+    // Null if the Task does not repeat
+    protected Recurrence recurrence;
+    // Index of the current occurrence, which is the last occurrence once the whole series is done
+    protected int occurrence;
+    private long id = NO_ID;
 
     /**
      * Creates an Task with the specified description.
@@ -21,14 +38,111 @@ public abstract class Task implements Comparable<Task> {
         this.isDone = false;
     }
 
+    public char getType() {
+        return type;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    /**
+     * Sets the id of the Task, which is usually done by the TaskList it is added to,
+     * or by the Storage it is loaded from.
+     *
+     * @param id Id of the Task, which should be positive.
+     */
+    public void setId(long id) {
+        this.id = id;
+    }
+
     public boolean isDone() {
         return isDone;
     }
 
+    public Recurrence getRecurrence() {
+        return recurrence;
+    }
+
+    public int getOccurrence() {
+        return occurrence;
+    }
+
+    public boolean isRecurring() {
+        return recurrence != null;
+    }
+
+    /**
+     * Makes the Task repeat by a Recurrence, starting from the date/time the Task was created with.
+     *
+     * @param recurrence Recurrence, or <code>null</code> if the Task should not repeat.
+     * @param occurrence Index of the current occurrence.
+     * @throws IllegalArgumentException If the Task has no date, or the occurrence is not part of the series.
+     */
+    public void setRecurrence(Recurrence recurrence, int occurrence) {
+        if (recurrence != null) {
+            Temporal first = getFirstDateTime();
+            if (type == 'T' || !TaskIntervalIndex.isFixed(first)) {
+                throw new IllegalArgumentException("Only a task with a date can repeat");
+            }
+            if (!recurrence.includes(first, occurrence)) {
+                throw new IllegalArgumentException("The occurrence is not part of the series");
+            }
+        }
+        this.recurrence = recurrence;
+        this.occurrence = recurrence == null ? 0 : occurrence;
+        updateOccurrence();
+    }
+
+    /**
+     * Returns the date/time of the first occurrence of the Task, which is the date/time of the Task
+     * if it does not repeat.
+     *
+     * @return Date/time of the first occurrence.
+     */
+    protected Temporal getFirstDateTime() {
+        return toDateTime();
+    }
+
+    /**
+     * Updates the date/time of the Task after the current occurrence has changed.
+     */
+    protected void updateOccurrence() {
+        // A Task without a date/time has nothing to update
+    }
+
+    /**
+     * Returns a String describing how the Task repeats, or an empty String if it does not.
+     *
+     * @return Description of the Recurrence, in brackets.
+     */
+    protected String formatRecurrence() {
+        return recurrence == null ? "" : " (" + recurrence + ")";
+    }
+
+    /**
+     * Returns <code>true</code> if the occurrence at <code>index</code> has been done.
+     */
+    boolean isOccurrenceDone(int index) {
+        return index < occurrence || index == occurrence && isDone;
+    }
+
     /**
      * Marks the Task as done.
+     * <p>
+     * If the Task repeats, only the current occurrence is done, and the Task moves on to the next
+     * occurrence. The Task itself is only marked as done when there are no more occurrences.
      */
     public void markAsDone() {
+        if (recurrence != null && recurrence.includes(getFirstDateTime(), occurrence + 1)) {
+            occurrence++;
+            updateOccurrence();
+            return;
+        }
         isDone = true;
     }
 
@@ -56,7 +170,8 @@ public abstract class Task implements Comparable<Task> {
      * @return Representation of the Task in text storage.
      */
     public String getStorageText() {
-        return type + "\n" + (isDone ? "1" : "0") + "\n" + description;
+        String recurrenceText = recurrence == null ? "" : " " + occurrence + " " + recurrence.toStorageText();
+        return type + recurrenceText + "\n" + (isDone ? "1" : "0") + "\n" + description;
     }
 
     /**
@@ -71,6 +186,13 @@ public abstract class Task implements Comparable<Task> {
         return String.format("[%s][%s] %s", type, getStatusIcon(), description);
     }
 
+    /**
+     * Returns a copy of the Task with the same id, which can be marked or unmarked independently of the Task.
+     *
+     * @return Copy of the Task.
+     */
+    public abstract Task copy();
+
     /**
      * Returns a Temporal representing the datetime of the task.
      *
@@ -78,6 +200,17 @@ public abstract class Task implements Comparable<Task> {
      */
     public abstract Temporal toDateTime();
 
+    /**
+     * Returns a key that orders tasks by their datetime, without allocating any objects.
+     *
+     * @param referenceEpochDay Epoch day of the date on which a time-only datetime falls.
+     * @return Sort key of the task.
+     * @see Temporal#getSortKey(long)
+     */
+    public long getSortKey(long referenceEpochDay) {
+        return toDateTime().getSortKey(referenceEpochDay);
+    }
+
     /**
      * {@inheritDoc}
      * <p>
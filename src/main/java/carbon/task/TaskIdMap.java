@@ -0,0 +1,121 @@
+package carbon.task;
+
+import java.util.Arrays;
+
+/**
+ * A TaskIdMap maps task ids to tasks, without boxing the ids.
+ * <p>
+ * The ids are kept in an open-addressing hash table with linear probing, in a plain
+ * <code>long[]</code> alongside the tasks, so a lookup is usually a single array access.
+ * Removed entries are filled in by shifting later entries of the same probe sequence back,
+ * so no tombstones are left behind. Ids are positive, so {@link Task#NO_ID} marks an empty slot.
+ */
+class TaskIdMap {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private Task[] tasks = new Task[INITIAL_CAPACITY];
+    private int size;
+
+    private int slotOf(long id) {
+        // Fibonacci hashing, as consecutive ids would otherwise fill consecutive slots
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(ids.length)));
+    }
+
+    private int next(int slot) {
+        return (slot + 1) & (ids.length - 1);
+    }
+
+    /**
+     * Returns the task with the specified id, or <code>null</code> if there is none.
+     *
+     * @param id Id of the task.
+     * @return Task with the id.
+     */
+    Task get(long id) {
+        for (int slot = slotOf(id); ids[slot] != Task.NO_ID; slot = next(slot)) {
+            if (ids[slot] == id) {
+                return tasks[slot];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Maps the task's id to the task.
+     *
+     * @param task Task with a positive id.
+     */
+    void put(Task task) {
+        assert task.getId() > 0 : "Task should have an id";
+        if ((size + 1) * 2 > ids.length) {
+            resize(ids.length * 2);
+        }
+        int slot = slotOf(task.getId());
+        while (ids[slot] != Task.NO_ID && ids[slot] != task.getId()) {
+            slot = next(slot);
+        }
+        if (ids[slot] == Task.NO_ID) {
+            size++;
+        }
+        ids[slot] = task.getId();
+        tasks[slot] = task;
+    }
+
+    /**
+     * Removes the mapping for the specified id, if any.
+     *
+     * @param id Id of the task.
+     */
+    void remove(long id) {
+        int slot = slotOf(id);
+        while (ids[slot] != id) {
+            if (ids[slot] == Task.NO_ID) {
+                return;
+            }
+            slot = next(slot);
+        }
+        size--;
+        // Shift back any later entry that could not be placed at or before the emptied slot
+        int empty = slot;
+        for (int current = next(slot); ids[current] != Task.NO_ID; current = next(current)) {
+            int home = slotOf(ids[current]);
+            boolean canMove = empty <= current
+                    ? home <= empty || home > current
+                    : home <= empty && home > current;
+            if (canMove) {
+                ids[empty] = ids[current];
+                tasks[empty] = tasks[current];
+                empty = current;
+            }
+        }
+        ids[empty] = Task.NO_ID;
+        tasks[empty] = null;
+    }
+
+    /**
+     * Removes every mapping.
+     */
+    void clear() {
+        Arrays.fill(ids, Task.NO_ID);
+        Arrays.fill(tasks, null);
+        size = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void resize(int capacity) {
+        long[] oldIds = ids;
+        Task[] oldTasks = tasks;
+        ids = new long[capacity];
+        tasks = new Task[capacity];
+        size = 0;
+        for (int i = 0; i < oldIds.length; i++) {
+            if (oldIds[i] != Task.NO_ID) {
+                put(oldTasks[i]);
+            }
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package carbon.task;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * A TaskIntervalIndex finds the Deadlines and Events that fall within a period of time,
+ * and the Events that overlap each other.
+ * <p>
+ * Each task covers a half-open interval of epoch seconds (see {@link Temporal#getSortKey(long)}):
+ * <ul>
+ *     <li>An Event covers the time from its start to its end</li>
+ *     <li>A Deadline covers the single second at which it is due</li>
+ *     <li>A date without a time covers the whole day when it is the end of an interval</li>
+ * </ul>
+ * The intervals are kept in a treap (a randomly balanced binary search tree) ordered by their starts,
+ * where each node also stores the latest end and the number of nodes in its subtree. Subtrees that end
+ * before a period begins are skipped, so the tasks within a period are found in O(log n + k) expected time,
+ * and the tasks starting within a period are counted in O(log n) expected time.
+ * <p>
+ * Tasks with a time but no date fall on a different day depending on when the index is queried,
+ * so they are kept outside of the tree and checked separately. Tasks whose date/time is text are
+ * not indexed.
+ * <p>
+ * Repeating tasks are also kept outside of the tree, as a single entry for the whole series.
+ * Their occurrences are only generated when a query reaches them: each query skips straight to
+ * the first occurrence that may fall within it, and stops after the last.
+ */
+class TaskIntervalIndex {
+    private final SplittableRandom random = new SplittableRandom();
+    private final IdentityHashMap<Task, Node> nodes = new IdentityHashMap<>();
+    private final Set<Task> timeOnlyTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Task> recurringTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+    private Node root;
+    private long nextSerial;
+
+    /**
+     * The interval covered by a task, or by one occurrence of a repeating task.
+     *
+     * @param task Task in the TaskList.
+     * @param occurrence The occurrence covering the interval, which is <code>task</code> itself
+     *     unless it repeats.
+     */
+    record Interval(Task task, long start, long end, Task occurrence) {
+        private static final Comparator<Interval> BY_START = Comparator.comparingLong(Interval::start);
+
+        Interval(Task task, long start, long end) {
+            this(task, start, end, task);
+        }
+
+        private boolean overlaps(long from, long to) {
+            return start < to && end > from;
+        }
+    }
+
+    private static class Node {
+        private final Interval interval;
+        // Breaks ties between intervals with the same start
+        private final long serial;
+        private final int priority;
+        private long maxEnd;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(Interval interval, long serial, int priority) {
+            this.interval = interval;
+            this.serial = serial;
+            this.priority = priority;
+            maxEnd = interval.end;
+        }
+
+        private boolean isBefore(Node other) {
+            return interval.start != other.interval.start
+                    ? interval.start < other.interval.start
+                    : serial < other.serial;
+        }
+
+        private void update() {
+            maxEnd = interval.end;
+            size = 1;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+                size += left.size;
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+                size += right.size;
+            }
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if the Temporal is a date or datetime,
+     * which falls at the same point in time whenever it is compared.
+     */
+    static boolean isFixed(Temporal temporal) {
+        return temporal.getType() == TemporalType.DATE || temporal.getType() == TemporalType.DATETIME;
+    }
+
+    /**
+     * Returns the epoch second at which an interval ending at the Temporal ends.
+     * A date includes the whole day, and a time or datetime is included if <code>isInclusive</code> is set.
+     *
+     * @param temporal End of the interval.
+     * @param isInclusive Whether the second of a time or datetime is part of the interval.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Epoch second just after the interval.
+     */
+    static long endOf(Temporal temporal, boolean isInclusive, long referenceEpochDay) {
+        long key = temporal.getSortKey(referenceEpochDay);
+        if (temporal.getType() == TemporalType.DATE) {
+            return key + Temporal.SECONDS_PER_DAY;
+        }
+        return isInclusive ? key + 1 : key;
+    }
+
+    /**
+     * Returns the epoch second at which a task is due: when a Deadline is due, or when an Event starts.
+     * A Deadline with a date but no time is due at the end of that day.
+     *
+     * @param task Task whose due time is returned.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Epoch second at which the task is due, or {@link Temporal#TEXT_SORT_KEY} if it is never due
+     *     (a Todo, or a task whose date/time is text).
+     */
+    static long dueTimeOf(Task task, long referenceEpochDay) {
+        if (task instanceof Deadline deadline && deadline.getDueBy().getType() != TemporalType.TEXT) {
+            return endOf(deadline.getDueBy(), false, referenceEpochDay);
+        } else if (task instanceof Event event && event.getStart().getType() != TemporalType.TEXT) {
+            return event.getStart().getSortKey(referenceEpochDay);
+        }
+        return Temporal.TEXT_SORT_KEY;
+    }
+
+    /**
+     * Returns the interval covered by a task, or <code>null</code> if the task does not cover any.
+     *
+     * @param task Task whose interval is returned.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Interval covered by the task.
+     */
+    private static Interval intervalOf(Task task, long referenceEpochDay) {
+        if (task instanceof Deadline deadline && deadline.getDueBy().getType() != TemporalType.TEXT) {
+            long start = deadline.getDueBy().getSortKey(referenceEpochDay);
+            return new Interval(task, start, start + 1);
+        } else if (task instanceof Event event && event.getStart().getType() != TemporalType.TEXT
+                && event.getEnd().getType() != TemporalType.TEXT) {
+            long start = event.getStart().getSortKey(referenceEpochDay);
+            // An Event that ends before it starts is treated as lasting an instant
+            long end = Math.max(endOf(event.getEnd(), false, referenceEpochDay), start + 1);
+            return new Interval(task, start, end);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the epoch second at which a task starts: when a Deadline is due, or when an Event starts.
+     * Unlike {@link #dueTimeOf(Task, long)}, a Deadline with a date but no time starts at the start of that day.
+     *
+     * @param task Task whose start is returned.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Epoch second at which the task starts, or {@link Temporal#TEXT_SORT_KEY} if it is not indexed
+     *     (a Todo, or a task whose date/time is text).
+     */
+    static long startOf(Task task, long referenceEpochDay) {
+        Interval interval = intervalOf(task, referenceEpochDay);
+        return interval == null ? Temporal.TEXT_SORT_KEY : interval.start();
+    }
+
+    private static boolean isFixed(Task task) {
+        if (task instanceof Deadline deadline) {
+            return isFixed(deadline.getDueBy());
+        }
+        return task instanceof Event event && isFixed(event.getStart()) && isFixed(event.getEnd());
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task Task to be added.
+     */
+    void add(Task task) {
+        Interval interval = intervalOf(task, 0);
+        if (interval == null) {
+            return;
+        }
+        if (task.isRecurring()) {
+            recurringTasks.add(task);
+            return;
+        }
+        if (!isFixed(task)) {
+            timeOnlyTasks.add(task);
+            return;
+        }
+        Node node = new Node(interval, nextSerial++, random.nextInt());
+        nodes.put(task, node);
+        Node[] parts = split(root, node);
+        root = merge(merge(parts[0], node), parts[1]);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to be removed.
+     */
+    void remove(Task task) {
+        Node node = nodes.remove(task);
+        if (node == null) {
+            timeOnlyTasks.remove(task);
+            recurringTasks.remove(task);
+            return;
+        }
+        root = remove(root, node);
+    }
+
+    private static Node remove(Node current, Node node) {
+        if (current == node) {
+            return merge(node.left, node.right);
+        }
+        if (node.isBefore(current)) {
+            current.left = remove(current.left, node);
+        } else {
+            current.right = remove(current.right, node);
+        }
+        current.update();
+        return current;
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        nodes.clear();
+        timeOnlyTasks.clear();
+        recurringTasks.clear();
+        root = null;
+    }
+
+    /**
+     * Splits a tree into the nodes before <code>key</code>, and the rest.
+     */
+    private static Node[] split(Node node, Node key) {
+        if (node == null) {
+            return new Node[] {null, null};
+        }
+        Node[] parts;
+        if (node.isBefore(key)) {
+            parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = node;
+        } else {
+            parts = split(node.left, key);
+            node.left = parts[1];
+            parts[1] = node;
+        }
+        node.update();
+        return parts;
+    }
+
+    /**
+     * Merges two trees, where every node of <code>left</code> is before every node of <code>right</code>.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null || right == null) {
+            return left == null ? right : left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    /**
+     * Returns the intervals of the indexed tasks that overlap the period from <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive), ordered by their starts.
+     *
+     * @param from Epoch second at which the period starts.
+     * @param to Epoch second at which the period ends.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Intervals overlapping the period.
+     */
+    List<Interval> findOverlapping(long from, long to, long referenceEpochDay) {
+        List<Interval> results = new ArrayList<>();
+        findOverlapping(root, from, to, results);
+        if (!timeOnlyTasks.isEmpty() || !recurringTasks.isEmpty()) {
+            for (Task task : timeOnlyTasks) {
+                Interval interval = intervalOf(task, referenceEpochDay);
+                if (interval.overlaps(from, to)) {
+                    results.add(interval);
+                }
+            }
+            for (Task task : recurringTasks) {
+                addOccurrences(task, from, to, referenceEpochDay, results);
+            }
+            results.sort(Interval.BY_START);
+        }
+        return results;
+    }
+
+    /**
+     * Returns the indexed tasks that start (see {@link #startOf(Task, long)}) from <code>from</code>
+     * (inclusive) to <code>to</code> (exclusive), in no particular order.
+     * A repeating task is included once, if its current occurrence starts within the period.
+     *
+     * @param from Epoch second at which the period starts.
+     * @param to Epoch second at which the period ends.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Tasks starting within the period.
+     */
+    List<Task> findStartingIn(long from, long to, long referenceEpochDay) {
+        List<Task> results = new ArrayList<>();
+        findStartingIn(root, from, to, results);
+        for (Set<Task> tasks : List.of(timeOnlyTasks, recurringTasks)) {
+            for (Task task : tasks) {
+                long start = startOf(task, referenceEpochDay);
+                if (start >= from && start < to) {
+                    results.add(task);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static void findStartingIn(Node node, long from, long to, List<Task> results) {
+        if (node == null) {
+            return;
+        }
+        long start = node.interval.start;
+        if (start >= from) {
+            findStartingIn(node.left, from, to, results);
+        }
+        if (start >= from && start < to) {
+            results.add(node.interval.task);
+        }
+        if (start < to) {
+            findStartingIn(node.right, from, to, results);
+        }
+    }
+
+    /**
+     * Returns at least the number of tasks that {@link #findStartingIn(long, long, long)} would return,
+     * without finding them. Tasks with a time but no date and repeating tasks are always counted.
+     *
+     * @param from Epoch second at which the period starts.
+     * @param to Epoch second at which the period ends.
+     * @return Upper bound of the number of tasks starting within the period.
+     */
+    int countStartingIn(long from, long to) {
+        int count = countStartingBefore(to) - countStartingBefore(from);
+        return Math.max(count, 0) + timeOnlyTasks.size() + recurringTasks.size();
+    }
+
+    private int countStartingBefore(long key) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.interval.start < key) {
+                count += 1 + (node.left == null ? 0 : node.left.size);
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    private static Task occurrenceOf(Task task, int index) {
+        return task instanceof Deadline deadline ? deadline.occurrenceAt(index) : ((Event) task).occurrenceAt(index);
+    }
+
+    /**
+     * Adds the intervals of the occurrences of a repeating task that overlap the period from
+     * <code>from</code> (inclusive) to <code>to</code> (exclusive), in order.
+     */
+    private static void addOccurrences(Task task, long from, long to, long referenceEpochDay,
+            List<Interval> results) {
+        Recurrence recurrence = task.getRecurrence();
+        Temporal first = task.getFirstDateTime();
+        Interval current = intervalOf(task, referenceEpochDay);
+        // Occurrences may differ in length by a few days (e.g. months), so start one occurrence earlier
+        long length = current.end() - current.start();
+        long index = from <= first.getSortKey(referenceEpochDay)
+                ? 0
+                : Math.max(0, recurrence.indexNotAfter(first, from - length) - 1);
+        for (; recurrence.includes(first, index); index++) {
+            Task occurrence = occurrenceOf(task, (int) index);
+            Interval interval = intervalOf(occurrence, referenceEpochDay);
+            if (interval.start() >= to) {
+                break;
+            }
+            if (interval.overlaps(from, to)) {
+                results.add(new Interval(task, interval.start(), interval.end(), occurrence));
+            }
+        }
+    }
+
+    private static void findOverlapping(Node node, long from, long to, List<Interval> results) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        findOverlapping(node.left, from, to, results);
+        if (node.interval.start >= to) {
+            // Every interval to the right starts even later
+            return;
+        }
+        if (node.interval.end > from) {
+            results.add(node.interval);
+        }
+        findOverlapping(node.right, from, to, results);
+    }
+
+    /**
+     * Returns every pair of Events whose intervals overlap.
+     * <p>
+     * The Events are swept in order of their starts, keeping the Events that have started
+     * but not ended yet. Each Event overlaps exactly those Events that are still ongoing when it starts,
+     * so this takes O(n log n + k) time rather than comparing every pair.
+     *
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Pairs of overlapping Events, with the earlier starting Event first.
+     */
+    List<Interval[]> findConflicts(long referenceEpochDay) {
+        List<Interval> events = new ArrayList<>();
+        collectEvents(root, events);
+        if (!timeOnlyTasks.isEmpty() || !recurringTasks.isEmpty()) {
+            for (Task task : timeOnlyTasks) {
+                if (task instanceof Event) {
+                    events.add(intervalOf(task, referenceEpochDay));
+                }
+            }
+            for (Task task : recurringTasks) {
+                if (task instanceof Event) {
+                    // Every occurrence of the series is compared
+                    addOccurrences(task, Long.MIN_VALUE, Long.MAX_VALUE, referenceEpochDay, events);
+                }
+            }
+            events.sort(Interval.BY_START);
+        }
+
+        List<Interval[]> conflicts = new ArrayList<>();
+        PriorityQueue<Interval> ongoing = new PriorityQueue<>(Comparator.comparingLong(Interval::end));
+        for (Interval event : events) {
+            while (!ongoing.isEmpty() && ongoing.peek().end() <= event.start()) {
+                ongoing.poll();
+            }
+            for (Interval other : ongoing) {
+                conflicts.add(new Interval[] {other, event});
+            }
+            ongoing.add(event);
+        }
+        return conflicts;
+    }
+
+    private static void collectEvents(Node node, List<Interval> events) {
+        if (node == null) {
+            return;
+        }
+        collectEvents(node.left, events);
+        if (node.interval.task() instanceof Event) {
+            events.add(node.interval);
+        }
+        collectEvents(node.right, events);
+    }
+}
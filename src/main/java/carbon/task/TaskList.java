@@ -1,11 +1,18 @@
 package carbon.task;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.function.Consumer;
+import java.util.function.IntUnaryOperator;
 
 import carbon.exceptions.InvalidArgumentException;
 import carbon.utils.Parser;
@@ -16,13 +23,258 @@ import carbon.utils.Storage;
  */
 public class TaskList {
     private static final String NO_TASKS_MESSAGE = "You don't have any tasks! :)";
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final Duration DEFAULT_DUE_WINDOW = Duration.ofDays(1);
     private final ArrayList<Task> tasks;
+    private final Storage storage;
+    private final TaskSearchIndex searchIndex = new TaskSearchIndex();
+    private final TaskIntervalIndex intervalIndex = new TaskIntervalIndex();
+    private final TaskOrderIndex orderIndex = new TaskOrderIndex();
+    private final TaskQueryPlanner queryPlanner = new TaskQueryPlanner(searchIndex, intervalIndex, orderIndex);
+    // Index of each task in tasks, to number the results of searchIndex
+    private final IdentityHashMap<Task, Integer> positions = new IdentityHashMap<>();
+    private final TaskIdMap ids = new TaskIdMap();
+    private final List<TaskListener> listeners = new ArrayList<>();
+    private long nextId = 1;
+    private int pageSize;
+    // Loaded from storage when first needed
+    private List<Task> archive;
 
     /**
-     * Creates a TaskList object with no tasks.
+     * Creates a TaskList object with no tasks, which is not saved to storage.
      */
     public TaskList() {
+        this(null);
+    }
+
+    /**
+     * Creates a TaskList object with no tasks, which saves every change to <code>storage</code>.
+     * <p>
+     * The number of tasks listed per page is read from the system property <code>carbon.pageSize</code>
+     * (by default, {@value #DEFAULT_PAGE_SIZE}).
+     *
+     * @param storage Storage to save changes to.
+     */
+    public TaskList(Storage storage) {
         tasks = new ArrayList<>();
+        this.storage = storage;
+        setPageSize(Integer.getInteger("carbon.pageSize", DEFAULT_PAGE_SIZE));
+    }
+
+    /**
+     * Sets the number of tasks listed per page.
+     *
+     * @param pageSize Number of tasks per page.
+     * @throws IllegalArgumentException If <code>pageSize</code> is not positive.
+     */
+    public void setPageSize(int pageSize) {
+        if (pageSize < 1) {
+            throw new IllegalArgumentException("Page size should be positive");
+        }
+        this.pageSize = pageSize;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Records a change in storage, compacting the journal if it has grown too large.
+     *
+     * @param record Appends the record of the change.
+     */
+    private void journal(Consumer<Storage> record) {
+        if (storage == null) {
+            return;
+        }
+        record.accept(storage);
+        if (storage.isCompactionDue()) {
+            storage.updateDataFile(tasks, nextId);
+        }
+    }
+
+    /**
+     * Updates the positions of the tasks from <code>start</code> onwards,
+     * after tasks have been removed or reordered.
+     */
+    private void updatePositions(int start) {
+        for (int i = start; i < tasks.size(); i++) {
+            positions.put(tasks.get(i), i);
+        }
+    }
+
+    private void append(Task task) {
+        if (task.getId() == Task.NO_ID) {
+            task.setId(nextId);
+        }
+        nextId = Math.max(nextId, task.getId() + 1);
+        ids.put(task);
+        int index = tasks.size();
+        positions.put(task, index);
+        tasks.add(task);
+        searchIndex.add(task);
+        intervalIndex.add(task);
+        orderIndex.add(task);
+        listeners.forEach(listener -> listener.taskAdded(task, index));
+    }
+
+    /**
+     * Updates the indices after a task has been marked or unmarked as done.
+     */
+    private void reindex(Task task) {
+        searchIndex.update(task);
+        orderIndex.update(task);
+        int index = positions.get(task);
+        listeners.forEach(listener -> listener.taskChanged(task, index));
+    }
+
+    /**
+     * Removes a task that has been deleted from the indices, before the positions of the remaining tasks
+     * are updated.
+     */
+    private void unindex(Task task) {
+        int index = positions.remove(task);
+        ids.remove(task.getId());
+        searchIndex.remove(task);
+        intervalIndex.remove(task);
+        orderIndex.remove(task);
+        listeners.forEach(listener -> listener.taskRemoved(task, index));
+    }
+
+    /**
+     * Removes several tasks that have been deleted from the indices, from the last to the first,
+     * so that listeners can remove them one at a time by their indices.
+     *
+     * @param removed Tasks that have been deleted, in the order in which they were in the TaskList.
+     */
+    private void unindexAll(List<Task> removed) {
+        for (int i = removed.size() - 1; i >= 0; i--) {
+            unindex(removed.get(i));
+        }
+    }
+
+    /**
+     * Adds a listener that is told about every task added to, changed in or removed from the TaskList
+     * from now on. Tasks already in the TaskList are not passed to the listener.
+     *
+     * @param listener Listener to be added.
+     */
+    public void addListener(TaskListener listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added by {@link #addListener(TaskListener)}.
+     *
+     * @param listener Listener to be removed.
+     */
+    public void removeListener(TaskListener listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Writes the tasks in <code>results</code> from <code>start</code> (inclusive) to <code>end</code>
+     * (exclusive) to <code>out</code>, one per line.
+     *
+     * @param numbers Returns the number to label a task with, given its index in <code>results</code>.
+     * @param showsIds Whether each task's id is written after its number.
+     */
+    private static void appendLines(Appendable out, List<Task> results, int start, int end, IntUnaryOperator numbers,
+            boolean showsIds) throws IOException {
+        for (int i = start; i < end; i++) {
+            if (i > start) {
+                out.append('\n');
+            }
+            out.append(String.valueOf(numbers.applyAsInt(i))).append(". ");
+            if (showsIds) {
+                out.append('#').append(String.valueOf(results.get(i).getId())).append(' ');
+            }
+            out.append(results.get(i).toString());
+        }
+    }
+
+    private static String formatLines(List<Task> results, int start, int end, IntUnaryOperator numbers,
+            boolean showsIds) {
+        StringBuilder out = new StringBuilder();
+        try {
+            appendLines(out, results, start, end, numbers, showsIds);
+        } catch (IOException e) {
+            // Not thrown by StringBuilder
+            throw new RuntimeException(e);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Returns a String that lists tasks in the TaskList, one per line, each numbered by its index in the TaskList.
+     */
+    private String formatLines(List<Task> results) {
+        return formatLines(results, 0, results.size(), i -> positions.get(results.get(i)) + 1, false);
+    }
+
+    /**
+     * Returns a String consisting of <code>header</code>, followed by one page of <code>results</code>,
+     * each numbered by its index in the TaskList.
+     * If there is more than one page, a footer describing how to view the next page is added.
+     *
+     * @param header First line(s) of the String.
+     * @param results Tasks to be listed.
+     * @param page Page to be listed, starting from 1.
+     * @param pageSize Number of tasks per page.
+     * @param command Command that lists another page, when followed by the page number.
+     * @return String representing the page.
+     * @throws InvalidArgumentException If the page does not exist.
+     */
+    private String formatPage(String header, List<Task> results, int page, int pageSize, String command) {
+        return formatPage(header, results, page, pageSize, command, i -> positions.get(results.get(i)) + 1, false);
+    }
+
+    /**
+     * Returns a String consisting of <code>header</code>, followed by one page of <code>results</code>
+     * labelled with the specified numbers, and with their ids if <code>showsIds</code> is set.
+     *
+     * @see #formatPage(String, List, int, int, String)
+     */
+    private static String formatPage(String header, List<Task> results, int page, int pageSize, String command,
+            IntUnaryOperator numbers, boolean showsIds) {
+        int pageCount = results.isEmpty() ? 1 : (results.size() - 1) / pageSize + 1;
+        if (page < 1 || page > pageCount) {
+            throw new InvalidArgumentException(String.format("Pages are numbered from 1 to %d", pageCount));
+        }
+        int start = (page - 1) * pageSize;
+        int end = start + Math.min(pageSize, results.size() - start);
+        StringBuilder out = new StringBuilder(header).append(formatLines(results, start, end, numbers, showsIds));
+        if (pageCount > 1) {
+            out.append(String.format("\n(Page %d of %d", page, pageCount))
+                    .append(page < pageCount ? String.format(", enter \"%s%d\" for the next page)", command, page + 1)
+                            : ")");
+        }
+        return out.toString();
+    }
+
+    private String formatListHeader(String description, int count) {
+        return String.format("You have %d " + description + ":\n", count, count != 1 ? "s" : "");
+    }
+
+    /**
+     * Writes the same lines as {@link #listTasks()} to <code>out</code>, one at a time, without building
+     * a String of the whole TaskList.
+     * <p>
+     * Each line is preceded by <code>indent</code>, and each line (including the last) ends with a newline.
+     *
+     * @param out Destination of the lines.
+     * @param indent Text written at the start of each line.
+     * @throws IOException If <code>out</code> could not be written to.
+     */
+    public void writeTasks(Appendable out, String indent) throws IOException {
+        if (tasks.isEmpty()) {
+            out.append(indent).append(NO_TASKS_MESSAGE).append('\n');
+            return;
+        }
+        out.append(indent).append(formatListHeader("task%s", tasks.size()));
+        for (int i = 0; i < tasks.size(); i++) {
+            out.append(indent).append(String.valueOf(i + 1)).append(". ").append(tasks.get(i).toString()).append('\n');
+        }
     }
 
     /**
@@ -36,57 +288,273 @@ public class TaskList {
         if (tasks.isEmpty()) {
             return NO_TASKS_MESSAGE;
         }
-        return String.format("You have %d task%s:\n", tasks.size(), tasks.size() != 1 ? "s" : "")
-                + IntStream.range(0, tasks.size())
-                .mapToObj(i -> (i + 1) + ". " + tasks.get(i))
-                .collect(Collectors.joining("\n"));
+        return formatPage(formatListHeader("task%s", tasks.size()), tasks, 1, Integer.MAX_VALUE, "");
+    }
+
+    /**
+     * Returns a String that lists one page of tasks in the TaskList.
+     * <p>
+     * Tasks are numbered, starting from 1.
+     *
+     * @param page Page to be listed, starting from 1.
+     * @return String representing the page of the TaskList.
+     * @throws InvalidArgumentException If the page does not exist.
+     */
+    public String listTasks(int page) {
+        if (tasks.isEmpty()) {
+            return NO_TASKS_MESSAGE;
+        }
+        return formatPage(formatListHeader("task%s", tasks.size()), tasks, page, pageSize, "list ");
     }
 
     /**
-     * Returns a String that lists all tasks in the TaskList whose String representation
-     * contains <code>filter</code> (case-insensitive).
+     * Returns a String that lists all tasks in the TaskList in a particular view,
+     * without changing the order of the TaskList.
+     * <p>
+     * The view is one of the following:
+     * <ul>
+     *     <li>"by date": all tasks, in the order {@link #sortTasks()} would place them</li>
+     *     <li>"by type": all tasks, grouped into Todos, Deadlines and Events</li>
+     *     <li>"done": tasks that are done</li>
+     *     <li>"undone": tasks that are not done</li>
+     *     <li>"ids": all tasks, each followed by its id (e.g. "#12")</li>
+     * </ul>
+     * As with {@link #listTasks(String)}, tasks are numbered according to their original indices.
+     * The view may be followed by "/page [number]" to list another page.
+     *
+     * @param arg The view to list.
+     * @return String representing the view of the TaskList.
+     */
+    public String listTasksInView(String arg) {
+        String view = Parser.removePageNumber(arg);
+        List<Task> results;
+        String description;
+        switch (view.toLowerCase()) {
+        case "by date":
+            results = orderIndex.tasksByDate(LocalDate.now().toEpochDay());
+            description = "task%s, ordered by date";
+            break;
+        case "by type":
+            results = orderIndex.tasksByType();
+            description = "task%s, grouped by type";
+            break;
+        case "done":
+            results = orderIndex.tasksWithStatus(true);
+            description = "done task%s";
+            break;
+        case "undone":
+            results = orderIndex.tasksWithStatus(false);
+            description = "undone task%s";
+            break;
+        case "ids":
+            results = tasks;
+            description = "task%s, with their ids";
+            break;
+        default:
+            throw new InvalidArgumentException(
+                    "I expected \"by date\", \"by type\", \"done\", \"undone\" or \"ids\" after \"list\"");
+        }
+
+        if (results.isEmpty()) {
+            return tasks.isEmpty()
+                    ? NO_TASKS_MESSAGE
+                    : String.format("You don't have any " + description + ".", "s");
+        }
+        boolean showsIds = view.equalsIgnoreCase("ids");
+        return formatPage(formatListHeader(description, results.size()), results, Parser.parsePageNumber(arg),
+                pageSize, "list " + view + " /page ", i -> positions.get(results.get(i)) + 1, showsIds);
+    }
+
+    /**
+     * Returns a String that lists all tasks in the TaskList that match a query, such as
+     * "type:D done:no before:2026-12-01 report" (see {@link TaskQuery}). A query that is plain text
+     * lists the tasks whose String representation contains it (case-insensitive).
      * <p>
      * Tasks are still numbered according to their original indices, rather than the
      * indices by which they appear in the filtered output. This is because the user
      * interacts with tasks based on their index in the TaskList, so presenting the
      * original index of the task avoids confusion.
+     * <p>
+     * Matching tasks are found by a {@link TaskQueryPlanner}, which looks up the tasks that may match the
+     * most selective term in an index (such as the tasks containing every three-character run of some text),
+     * and only checks those tasks against the rest of the query.
+     * <p>
+     * The query may be followed by "/page [number]" to list another page of matching tasks.
      *
-     * @param filter The text to filter by.
+     * @param arg The query to filter by.
      * @return String representing the filtered TaskList.
      */
-    public String listTasks(String filter) {
+    public String listTasks(String arg) {
+        String filter = Parser.removePageNumber(arg);
         if (filter.isEmpty()) {
             throw new InvalidArgumentException("I expected some text after \"find\"");
         }
+        TaskQuery query = TaskQuery.parse(filter);
         if (tasks.isEmpty()) {
             return NO_TASKS_MESSAGE;
         }
 
-        List<String> results = IntStream.range(0, tasks.size())
-                .filter(i -> tasks.get(i).toString().toLowerCase().contains(filter.toLowerCase()))
-                .mapToObj(i -> (i + 1) + ". " + tasks.get(i))
+        List<Task> results = findTasks(query);
+        boolean isPlural = results.size() != 1;
+        if (results.isEmpty()) {
+            return String.format(query.isPlainText()
+                    ? "You don't have any tasks that contain \"%s\"."
+                    : "You don't have any tasks that match \"%s\".", filter);
+        }
+        String header = query.isPlainText()
+                ? String.format("%d task%s contain%s \"%s\":\n", results.size(), isPlural ? "s" : "",
+                        isPlural ? "" : "s", filter)
+                : String.format("%d task%s match%s \"%s\":\n", results.size(), isPlural ? "s" : "",
+                        isPlural ? "" : "es", filter);
+        return formatPage(header, results, Parser.parsePageNumber(arg), pageSize, "find " + filter + " /page ");
+    }
+
+    /**
+     * Returns the tasks that match a query, in the order of the TaskList.
+     */
+    private List<Task> findTasks(TaskQuery query) {
+        long referenceEpochDay = LocalDate.now().toEpochDay();
+        TaskQueryPlanner.Plan plan = queryPlanner.plan(query, tasks.size());
+        if (plan.isScan()) {
+            return tasks.stream().filter(task -> query.matches(task, referenceEpochDay)).toList();
+        }
+        return queryPlanner.lookUp(plan, referenceEpochDay).stream()
+                .filter(task -> query.matches(task, referenceEpochDay))
+                .mapToInt(positions::get)
+                .sorted()
+                .mapToObj(tasks::get)
+                .toList();
+    }
+
+    /**
+     * Returns a String that lists all Deadlines and Events that fall within a period,
+     * in chronological order.
+     * <p>
+     * The input <code>arg</code> is the user input to be parsed into a period
+     * (excluding the word "between"), such as "2024-07-01 /and 2024-07-07".
+     * A date without a time includes the whole day. An Event falls within the period if any part
+     * of it does, and a Deadline falls within the period if it is due during the period.
+     *
+     * @param arg Details of the period.
+     * @return String representing the tasks within the period.
+     */
+    public String listTasksBetween(String arg) {
+        Temporal[] period = Parser.parsePeriod(arg);
+        long referenceEpochDay = LocalDate.now().toEpochDay();
+        long from = period[0].getSortKey(referenceEpochDay);
+        long to = TaskIntervalIndex.endOf(period[1], true, referenceEpochDay);
+        if (from >= to) {
+            throw new InvalidArgumentException("The start of the period should be before its end");
+        }
+
+        List<String> results = intervalIndex.findOverlapping(from, to, referenceEpochDay).stream()
+                .map(this::formatIndexed)
                 .toList();
         boolean isPlural = results.size() != 1;
         return results.isEmpty()
-                ? String.format("You don't have any tasks that contain \"%s\".", filter)
-                : String.format("%d task%s contain%s \"%s\":\n", results.size(), isPlural ? "s" : "",
-                isPlural ? "" : "s", filter) + String.join("\n", results);
+                ? String.format("You don't have any tasks between %s and %s.", period[0], period[1])
+                : String.format("%d task%s between %s and %s:\n", results.size(), isPlural ? "s fall" : " falls",
+                period[0], period[1]) + String.join("\n", results);
+    }
+
+    /**
+     * Returns a String that lists every pair of Events that overlap each other.
+     *
+     * @return String representing the overlapping Events.
+     */
+    public String listConflicts() {
+        List<String> results = intervalIndex.findConflicts(LocalDate.now().toEpochDay()).stream()
+                .map(pair -> formatIndexed(pair[0]) + "\n" + formatIndexed(pair[1]))
+                .toList();
+        boolean isPlural = results.size() != 1;
+        return results.isEmpty()
+                ? "None of your events overlap."
+                : String.format("%d pair%s of events overlap%s:\n", results.size(), isPlural ? "s" : "",
+                isPlural ? "" : "s") + String.join("\n\n", results);
+    }
+
+    /**
+     * Returns a String that lists the tasks not done yet that are due within a period from now,
+     * in the order they are due.
+     * <p>
+     * The input <code>arg</code> is the length of the period, such as "3 days" (by default, 1 day).
+     * A Deadline is due when specified, or at the end of the day if it has a date but no time,
+     * and an Event is due when it starts. Tasks whose date/time is text are never due.
+     *
+     * @param arg Length of the period.
+     * @return String representing the tasks due within the period.
+     */
+    public String listDueTasks(String arg) {
+        Duration window = arg.isEmpty() ? DEFAULT_DUE_WINDOW : Parser.parseWindow(arg);
+        String windowText = arg.isEmpty() ? "1 day" : arg;
+        long referenceEpochDay = LocalDate.now().toEpochDay();
+        long from = LocalDateTime.now().toEpochSecond(ZoneOffset.UTC);
+        long to = from + window.toSeconds();
+
+        // A Deadline with a date but no time is indexed at the start of the day on which it is due
+        List<String> results = intervalIndex.findOverlapping(from - Temporal.SECONDS_PER_DAY, to, referenceEpochDay)
+                .stream()
+                .filter(interval -> !interval.occurrence().isDone())
+                .filter(interval -> {
+                    long dueTime = TaskIntervalIndex.dueTimeOf(interval.occurrence(), referenceEpochDay);
+                    return dueTime >= from && dueTime < to;
+                })
+                .sorted(Comparator.comparingLong(interval ->
+                        TaskIntervalIndex.dueTimeOf(interval.occurrence(), referenceEpochDay)))
+                .map(this::formatIndexed)
+                .toList();
+        return results.isEmpty()
+                ? String.format("Nothing is due within %s.", windowText)
+                : String.format("%d task%s due within %s:\n", results.size(), results.size() != 1 ? "s are" : " is",
+                windowText) + String.join("\n", results);
+    }
+
+    /**
+     * Returns the occurrence covering an interval, numbered as its task is in the TaskList.
+     */
+    private String formatIndexed(TaskIntervalIndex.Interval interval) {
+        return (positions.get(interval.task()) + 1) + ". " + interval.occurrence();
     }
 
     /**
      * Sorts the TaskList, then returns a String that lists all tasks in the TaskList.
+     * <p>
+     * Tasks with a time but no date are considered to fall on the date the sort started.
      *
      * @return String representing the TaskList.
      * @see Task
      * @see Temporal
      */
     public String sortTasks() {
+        return sortTasks(LocalDate.now().toEpochDay());
+    }
+
+    /**
+     * Sorts the TaskList as {@link #sortTasks()} does, with tasks with a time but no date considered
+     * to fall on the specified date.
+     *
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return String representing the TaskList.
+     */
+    String sortTasks(long referenceEpochDay) {
         if (tasks.isEmpty()) {
             return NO_TASKS_MESSAGE;
         }
 
-        Collections.sort(tasks);
-        Storage.updateDataFile(tasks);
+        tasks.sort(Comparator.comparingLong(task -> task.getSortKey(referenceEpochDay)));
+        if (!listeners.isEmpty()) {
+            // Read before the positions are updated
+            int[] newIndices = new int[tasks.size()];
+            for (int i = 0; i < tasks.size(); i++) {
+                newIndices[positions.get(tasks.get(i))] = i;
+            }
+            listeners.forEach(listener -> listener.tasksReordered(newIndices));
+        }
+        updatePositions(0);
+        orderIndex.renumber(tasks);
+        if (storage != null) {
+            storage.updateDataFile(tasks, nextId);
+        }
 
         return "Tasks sorted!\n" + listTasks();
     }
@@ -110,20 +578,88 @@ public class TaskList {
         return tasks.size();
     }
 
+    /**
+     * Returns a read-only view of the tasks, in the order in which they are numbered.
+     *
+     * @return Tasks in the TaskList.
+     */
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
     /**
      * Adds a task to the TaskList.
+     * The task is given the next id, unless it already has one (e.g. when loaded from storage).
      *
      * @param task Task to be added.
      */
     public void add(Task task) {
-        tasks.add(task);
+        append(task);
+    }
+
+    /**
+     * Returns the id that the next task added will be given.
+     * Ids are never reused, even after the tasks with the highest ids have been deleted.
+     *
+     * @return Next id.
+     */
+    public long getNextId() {
+        return nextId;
+    }
+
+    /**
+     * Ensures that no task added afterwards is given an id below <code>nextId</code>,
+     * such as the ids of deleted tasks.
+     *
+     * @param nextId Lowest id that may be given to the next task.
+     */
+    public void reserveIds(long nextId) {
+        this.nextId = Math.max(this.nextId, nextId);
+    }
+
+    /**
+     * Returns <code>true</code> if user input refers to a single task,
+     * either by its number (e.g. "3") or by its id (e.g. "#12").
+     */
+    private static boolean isSingleTask(String arg) {
+        return Parser.isSingleIndex(arg) || Parser.isTaskId(arg);
+    }
+
+    /**
+     * Returns the index of the task that user input refers to, by its number or by its id.
+     * Looking a task up by its id takes O(1) time.
+     *
+     * @param arg User input, for which {@link #isSingleTask(String)} returns <code>true</code>.
+     * @return Index of the task in the TaskList (which may be out of bounds if given a number).
+     * @throws InvalidArgumentException If there is no task with the id.
+     */
+    private int indexOfTask(String arg) {
+        if (!Parser.isTaskId(arg)) {
+            return Integer.parseInt(arg) - 1;
+        }
+        long id = Parser.parseTaskId(arg);
+        Task task = ids.get(id);
+        if (task == null) {
+            throw new InvalidArgumentException(String.format("I couldn't find a task with the id #%d", id));
+        }
+        return positions.get(task);
     }
 
     /**
      * Clears the TaskList.
      */
     public void clear() {
+        for (int i = tasks.size() - 1; i >= 0; i--) {
+            Task task = tasks.get(i);
+            int index = i;
+            listeners.forEach(listener -> listener.taskRemoved(task, index));
+        }
         tasks.clear();
+        positions.clear();
+        ids.clear();
+        searchIndex.clear();
+        intervalIndex.clear();
+        orderIndex.clear();
     }
 
     /**
@@ -139,9 +675,15 @@ public class TaskList {
                 task.toString(), tasks.size(), isPlural ? "s" : "");
     }
 
-    private String addTask(Task task) {
-        tasks.add(task);
-        Storage.updateDataFile(tasks);
+    /**
+     * Adds a task that has already been parsed to the TaskList.
+     *
+     * @param task Task to be added, which must not be in any TaskList.
+     * @return Message representing the changes made.
+     */
+    String addTask(Task task) {
+        append(task);
+        journal(s -> s.appendAdd(task));
         return "Added:\n" + formatTask(task) + task.warningMessage;
     }
 
@@ -159,8 +701,14 @@ public class TaskList {
         String message = task.isDone()
                 ? String.format("Task #%d is already done (no changes made).", index + 1)
                 : "Nice! Marked as done:";
-        task.markAsDone();
-        Storage.updateDataFile(tasks);
+        if (!task.isDone()) {
+            task.markAsDone();
+            reindex(task);
+            journal(s -> s.appendMark(index));
+            if (!task.isDone()) {
+                message = "Nice! Marked that occurrence as done. Next up:";
+            }
+        }
         return message + "\n   " + tasks.get(index);
     }
 
@@ -178,11 +726,89 @@ public class TaskList {
         String message = task.isDone()
                 ? "Marked as not done:"
                 : String.format("Task #%d has not been done (no changes made).", index + 1);
-        task.unmarkAsDone();
-        Storage.updateDataFile(tasks);
+        if (task.isDone()) {
+            task.unmarkAsDone();
+            reindex(task);
+            journal(s -> s.appendUnmark(index));
+        }
         return message + "\n   " + tasks.get(index);
     }
 
+    /**
+     * Marks one or more tasks as done.
+     * <p>
+     * The input <code>arg</code> is either a single task number or id (e.g. "#12"), or refers to several tasks
+     * as described in {@link Parser#parseIndices(String, int, String)}.
+     *
+     * @param arg Task numbers specified by the user.
+     * @return Message representing the changes made.
+     * @throws IndexOutOfBoundsException If any task number is out of bounds.
+     */
+    public String mark(String arg) {
+        return isSingleTask(arg)
+                ? markTask(indexOfTask(arg))
+                : setStatus(Parser.parseIndices(arg, tasks.size(), "mark"), true);
+    }
+
+    /**
+     * Unmarks one or more tasks as done (i.e., marks as not done).
+     * <p>
+     * The input <code>arg</code> is either a single task number or id (e.g. "#12"), or refers to several tasks
+     * as described in {@link Parser#parseIndices(String, int, String)}.
+     *
+     * @param arg Task numbers specified by the user.
+     * @return Message representing the changes made.
+     * @throws IndexOutOfBoundsException If any task number is out of bounds.
+     */
+    public String unmark(String arg) {
+        return isSingleTask(arg)
+                ? unmarkTask(indexOfTask(arg))
+                : setStatus(Parser.parseIndices(arg, tasks.size(), "unmark"), false);
+    }
+
+    /**
+     * Marks or unmarks several tasks as done, recording all of the changes in storage at once.
+     * Tasks that already have the completion status are left unchanged.
+     *
+     * @param indices Indices of the tasks in the TaskList.
+     * @param isDone Whether the tasks should be marked as done.
+     * @return Message representing the changes made.
+     */
+    private String setStatus(BitSet indices, boolean isDone) {
+        BitSet changed = new BitSet();
+        List<Task> changedTasks = new ArrayList<>();
+        indices.stream().filter(i -> tasks.get(i).isDone() != isDone).forEach(i -> {
+            Task task = tasks.get(i);
+            if (isDone) {
+                task.markAsDone();
+            } else {
+                task.unmarkAsDone();
+            }
+            reindex(task);
+            changed.set(i);
+            changedTasks.add(task);
+        });
+
+        int unchangedCount = indices.cardinality() - changedTasks.size();
+        String status = isDone ? "done" : "not done";
+        if (changedTasks.isEmpty()) {
+            return String.format("%s already marked as %s (no changes made).",
+                    unchangedCount == 1 ? "That task is" : "All of those tasks are", status);
+        }
+        journal(s -> {
+            if (isDone) {
+                s.appendMark(changed);
+            } else {
+                s.appendUnmark(changed);
+            }
+        });
+        return String.format("%sMarked %d task%s as %s:\n", isDone ? "Nice! " : "", changedTasks.size(),
+                changedTasks.size() != 1 ? "s" : "", status)
+                + formatLines(changedTasks)
+                + (unchangedCount == 0 ? "" : String.format("\n(%d task%s already marked as %s, no changes made)",
+                unchangedCount, unchangedCount != 1 ? "s were" : " was", status));
+    }
+
     /**
      * Adds a Todo to the TaskList.
      *
@@ -232,19 +858,61 @@ public class TaskList {
     }
 
     /**
-     * Deletes either a task from the TaskList, or all marked tasks.
-     * Performs the former if <code>arg</code> is an int.
+     * Deletes either one or more tasks from the TaskList, or all marked tasks.
      * Performs the latter if <code>arg</code> has the value "marked".
+     * Otherwise, <code>arg</code> is either a single task number or id (e.g. "#12"), or refers to several tasks
+     * as described in {@link Parser#parseIndices(String, int, String)}.
      *
      * @param arg Argument specified by the user
      * @return Message representing the changes made.
-     * @throws IndexOutOfBoundsException If <code>arg</code> is parsed as an int and is out of bounds.
-     * @throws NumberFormatException If <code>arg</code> is not "marked" and cannot be parsed as an int.
+     * @throws IndexOutOfBoundsException If any task number is out of bounds.
      */
     public String delete(String arg) {
-        return arg.equalsIgnoreCase("marked")
-                ? deleteMarked()
-                : deleteTask(Integer.parseInt(arg) - 1);
+        if (arg.equalsIgnoreCase("marked")) {
+            return deleteMarked();
+        }
+        return isSingleTask(arg)
+                ? deleteTask(indexOfTask(arg))
+                : deleteTasks(Parser.parseIndices(arg, tasks.size(), "delete"));
+    }
+
+    /**
+     * Removes the tasks at the specified indices from a list in a single pass,
+     * moving each remaining task at most once.
+     *
+     * @param tasks The list of tasks.
+     * @param indices Indices of the tasks to be removed.
+     */
+    public static void removeTasks(List<Task> tasks, BitSet indices) {
+        int kept = indices.nextSetBit(0);
+        if (kept < 0) {
+            return;
+        }
+        for (int i = kept; i < tasks.size(); i++) {
+            if (!indices.get(i)) {
+                tasks.set(kept++, tasks.get(i));
+            }
+        }
+        tasks.subList(kept, tasks.size()).clear();
+    }
+
+    /**
+     * Deletes several tasks from the TaskList, recording all of the deletions in storage at once.
+     *
+     * @param indices Indices of the tasks in the TaskList to delete.
+     * @return Message representing the changes made.
+     */
+    protected String deleteTasks(BitSet indices) {
+        List<Task> deleted = indices.stream().mapToObj(tasks::get).toList();
+        String result = formatLines(deleted);
+
+        removeTasks(tasks, indices);
+        unindexAll(deleted);
+        updatePositions(indices.nextSetBit(0));
+
+        journal(s -> s.appendDelete(indices));
+        return String.format("Deleted %d task%s:\n", deleted.size(), deleted.size() != 1 ? "s" : "") + result
+                + String.format("\nYou now have %d task%s.", tasks.size(), tasks.size() != 1 ? "s" : "");
     }
 
     /**
@@ -256,35 +924,107 @@ public class TaskList {
      */
     protected String deleteTask(int index) {
         Task task = tasks.remove(index);
-        Storage.updateDataFile(tasks);
+        unindex(task);
+        updatePositions(index);
+        journal(s -> s.appendDelete(index));
         return "Deleted the following task:\n" + formatTask(task);
     }
 
+    /**
+     * Removes all marked tasks from the TaskList in a single pass, without recording the change.
+     *
+     * @return The removed tasks, or an empty list if there are no marked tasks.
+     */
+    private List<Task> removeMarked() {
+        BitSet marked = new BitSet(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            marked.set(i, tasks.get(i).isDone());
+        }
+        List<Task> removed = marked.stream().mapToObj(tasks::get).toList();
+        if (!removed.isEmpty()) {
+            removeTasks(tasks, marked);
+            unindexAll(removed);
+            updatePositions(marked.nextSetBit(0));
+        }
+        return removed;
+    }
+
     /**
      * Deletes all marked tasks from the TaskList.
      *
      * @return Message representing the changes made.
      */
     protected String deleteMarked() {
-        List<Integer> list = IntStream.range(0, tasks.size())
-                .filter(i -> tasks.get(i).isDone())
-                .boxed()
-                .toList();
+        // Numbered before any tasks are removed
+        String result = formatLines(orderIndex.tasksWithStatus(true));
+        if (removeMarked().isEmpty()) {
+            return "You don't have any marked tasks.";
+        }
+        journal(Storage::appendDeleteMarked);
+        return "Deleted all marked tasks:\n" + result;
+    }
 
-        if (list.isEmpty()) {
+    /**
+     * Moves all marked tasks from the TaskList into the archive.
+     * <p>
+     * Archived tasks are kept in storage apart from the TaskList, so they are not loaded
+     * when the program starts, but can still be viewed with {@link #listArchive(int)}.
+     *
+     * @param arg Argument specified by the user, which should be "marked".
+     * @return Message representing the changes made.
+     */
+    public String archive(String arg) {
+        if (!arg.equalsIgnoreCase("marked")) {
+            throw new InvalidArgumentException("I expected \"marked\" after \"archive\"");
+        }
+        List<Task> marked = orderIndex.tasksWithStatus(true);
+        if (marked.isEmpty()) {
             return "You don't have any marked tasks.";
         }
+        String result = formatLines(marked);
 
-        String result = list.stream()
-                .map(i -> (i + 1) + ". " + tasks.get(i))
-                .collect(Collectors.joining("\n"));
+        if (storage != null) {
+            // Must be queued before the tasks are deleted, so that they are written first
+            storage.appendArchive(marked);
+        }
+        if (archive != null || storage == null) {
+            getArchive().addAll(marked);
+        }
+        removeMarked();
+        journal(Storage::appendDeleteMarked);
+        return "Archived all marked tasks:\n" + result;
+    }
 
-        // Sort indices in reversed order so that deletion occurs from the back
-        list.stream().sorted(Comparator.reverseOrder())
-                .mapToInt(x -> x) // transforms to primitive IntStream
-                .forEach(tasks::remove); // remove would call the wrong method for Stream<Integer>
+    /**
+     * Drops the archived tasks kept in memory. If the TaskList is saved to storage,
+     * they are loaded again when next needed; otherwise, they are discarded.
+     */
+    void forgetArchive() {
+        archive = null;
+    }
 
-        Storage.updateDataFile(tasks);
-        return "Deleted all marked tasks:\n" + result;
+    private List<Task> getArchive() {
+        if (archive == null) {
+            archive = storage == null ? new ArrayList<>() : new ArrayList<>(storage.loadArchive());
+        }
+        return archive;
+    }
+
+    /**
+     * Returns a String that lists one page of archived tasks, loading the archive if needed.
+     * <p>
+     * Archived tasks are numbered in the order they were archived, starting from 1.
+     *
+     * @param page Page to be listed, starting from 1.
+     * @return String representing the page of the archive.
+     * @throws InvalidArgumentException If the page does not exist.
+     */
+    public String listArchive(int page) {
+        List<Task> archived = getArchive();
+        if (archived.isEmpty()) {
+            return "You don't have any archived tasks.";
+        }
+        return formatPage(formatListHeader("archived task%s", archived.size()), archived, page, pageSize,
+                "archived ", i -> i + 1, false);
     }
 }
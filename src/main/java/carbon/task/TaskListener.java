@@ -0,0 +1,48 @@
+package carbon.task;
+
+/**
+ * A TaskListener is told about each task that is added to, changed in or removed from a TaskList,
+ * and about each time the tasks are reordered.
+ * <p>
+ * Each change is described as a sequence of single steps, along with the index of the task that each step
+ * applies to. A listener that applies every step, in order, to its own list of tasks keeps the tasks in the
+ * same order as the TaskList. For example, when several tasks are deleted at once, they are removed
+ * from the last to the first, so that removing one does not change the index of the next.
+ * <p>
+ * Listeners are called by the thread making the change, while the change is being made,
+ * so they should return quickly. The Task passed to a listener may be changed after it returns,
+ * so any details needed later should be copied rather than kept through the Task.
+ */
+public interface TaskListener {
+    /**
+     * Called after a task has been added.
+     *
+     * @param task Task that was added.
+     * @param index Index at which the task was added.
+     */
+    void taskAdded(Task task, int index);
+
+    /**
+     * Called after a task has been marked or unmarked as done.
+     *
+     * @param task Task that was changed.
+     * @param index Index of the task.
+     */
+    void taskChanged(Task task, int index);
+
+    /**
+     * Called after a task has been deleted or archived.
+     *
+     * @param task Task that was removed.
+     * @param index Index from which the task was removed.
+     */
+    void taskRemoved(Task task, int index);
+
+    /**
+     * Called after the tasks have been reordered, such as by sorting them.
+     *
+     * @param newIndices The new index of each task, by its index before the tasks were reordered.
+     */
+    default void tasksReordered(int[] newIndices) {
+    }
+}
@@ -0,0 +1,228 @@
+package carbon.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * A TaskOrderIndex keeps tasks in several orders at once, so that they can be listed
+ * by date, by type or by completion status without reordering the TaskList.
+ * <p>
+ * Each order is a balanced binary search tree, so adding or removing a task takes O(log n) time.
+ * Ties are broken by a serial number, which matches the order of the tasks in the TaskList:
+ * a task is added with a serial after every other, removing tasks does not change the order of the rest,
+ * and the tasks are renumbered by {@link #renumber(List)} whenever the TaskList is reordered.
+ * <p>
+ * Tasks with a time but no date fall on a different day depending on when they are listed,
+ * so they are ordered by their time in a tree of their own, which is merged with the others when listed.
+ */
+class TaskOrderIndex {
+    private static final String TYPE_ORDER = "TDE";
+    private static final Comparator<Entry> BY_SERIAL = Comparator.comparingLong(Entry::serial);
+    private static final Comparator<Entry> BY_KEY = Comparator.comparingLong(Entry::key).thenComparing(BY_SERIAL);
+    private static final Comparator<Entry> BY_TYPE = Comparator.comparingInt(Entry::typeRank).thenComparing(BY_SERIAL);
+
+    private final IdentityHashMap<Task, Entry> entries = new IdentityHashMap<>();
+    private final TreeSet<Entry> byDate = new TreeSet<>(BY_KEY);
+    // Keyed by second of day
+    private final TreeSet<Entry> byTime = new TreeSet<>(BY_KEY);
+    private final TreeSet<Entry> byType = new TreeSet<>(BY_TYPE);
+    private final TreeSet<Entry> done = new TreeSet<>(BY_SERIAL);
+    private final TreeSet<Entry> undone = new TreeSet<>(BY_SERIAL);
+    // Number of tasks of each type, in TYPE_ORDER
+    private final int[] typeCounts = new int[TYPE_ORDER.length()];
+    private long nextSerial;
+
+    private record Entry(Task task, long key, long serial, int typeRank) {
+        private Entry(Task task, long key, long serial) {
+            this(task, key, serial, TYPE_ORDER.indexOf(task.getType()));
+        }
+    }
+
+    private static boolean isTimeOnly(Task task) {
+        return task.toDateTime().getType() == TemporalType.TIME;
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task Task to be added.
+     */
+    void add(Task task) {
+        // A time has the key of that time on epoch day 0, i.e. its second of day
+        insert(new Entry(task, task.getSortKey(0), nextSerial++));
+    }
+
+    private void insert(Entry entry) {
+        Task task = entry.task();
+        entries.put(task, entry);
+        (isTimeOnly(task) ? byTime : byDate).add(entry);
+        byType.add(entry);
+        typeCounts[entry.typeRank()]++;
+        (task.isDone() ? done : undone).add(entry);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to be removed.
+     */
+    void remove(Task task) {
+        Entry entry = entries.remove(task);
+        if (entry == null) {
+            return;
+        }
+        (isTimeOnly(task) ? byTime : byDate).remove(entry);
+        byType.remove(entry);
+        typeCounts[entry.typeRank()]--;
+        done.remove(entry);
+        undone.remove(entry);
+    }
+
+    /**
+     * Updates the index after a task has been marked or unmarked as done, which moves a repeating task
+     * on to another occurrence.
+     *
+     * @param task Task that has changed.
+     */
+    void update(Task task) {
+        Entry entry = entries.get(task);
+        long key = task.getSortKey(0);
+        if (entry.key() != key) {
+            // Keeps its serial, so that it stays in the same place among tasks with the same key
+            remove(task);
+            insert(new Entry(task, key, entry.serial()));
+            return;
+        }
+        if (task.isDone()) {
+            undone.remove(entry);
+            done.add(entry);
+        } else {
+            done.remove(entry);
+            undone.add(entry);
+        }
+    }
+
+    /**
+     * Renumbers the tasks in their new order, after the TaskList has been reordered,
+     * so that tasks that tie in any order are listed in the same order as in the TaskList.
+     *
+     * @param tasks Every task in the index, in their new order.
+     */
+    void renumber(List<Task> tasks) {
+        List<Entry> renumbered = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            Entry entry = entries.get(task);
+            renumbered.add(new Entry(task, entry.key(), nextSerial++, entry.typeRank()));
+        }
+        clear();
+        renumbered.forEach(this::insert);
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        entries.clear();
+        byDate.clear();
+        byTime.clear();
+        byType.clear();
+        done.clear();
+        undone.clear();
+        Arrays.fill(typeCounts, 0);
+    }
+
+    /**
+     * Returns the tasks in chronological order, as they would be ordered by {@link TaskList#sortTasks()}.
+     *
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Tasks ordered by date.
+     */
+    List<Task> tasksByDate(long referenceEpochDay) {
+        long offset = referenceEpochDay * Temporal.SECONDS_PER_DAY;
+        List<Task> results = new ArrayList<>(entries.size());
+        Iterator<Entry> dates = byDate.iterator();
+        Iterator<Entry> times = byTime.iterator();
+        Entry date = dates.hasNext() ? dates.next() : null;
+        Entry time = times.hasNext() ? times.next() : null;
+        while (date != null || time != null) {
+            boolean isTimeNext = date == null || time != null && (time.key + offset != date.key
+                    ? time.key + offset < date.key
+                    : time.serial < date.serial);
+            if (isTimeNext) {
+                results.add(time.task);
+                time = times.hasNext() ? times.next() : null;
+            } else {
+                results.add(date.task);
+                date = dates.hasNext() ? dates.next() : null;
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the tasks grouped by type (Todos, then Deadlines, then Events).
+     *
+     * @return Tasks ordered by type.
+     */
+    List<Task> tasksByType() {
+        return byType.stream().map(Entry::task).toList();
+    }
+
+    /**
+     * Returns the tasks with the specified completion status.
+     *
+     * @param isDone Whether the tasks returned are done.
+     * @return Tasks with the completion status.
+     */
+    List<Task> tasksWithStatus(boolean isDone) {
+        return (isDone ? done : undone).stream().map(Entry::task).toList();
+    }
+
+    /**
+     * Returns the tasks of the specified types, grouped by type.
+     *
+     * @param types Types of the tasks returned, such as "DE" for Deadlines and Events.
+     * @return Tasks of the types.
+     */
+    List<Task> tasksOfType(String types) {
+        List<Task> results = new ArrayList<>(countOfType(types));
+        for (int rank = 0; rank < TYPE_ORDER.length(); rank++) {
+            if (types.indexOf(TYPE_ORDER.charAt(rank)) >= 0) {
+                byType.subSet(new Entry(null, 0, Long.MIN_VALUE, rank), new Entry(null, 0, Long.MAX_VALUE, rank))
+                        .forEach(entry -> results.add(entry.task()));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of tasks of the specified types, in O(1) time.
+     *
+     * @param types Types of the tasks counted, such as "DE" for Deadlines and Events.
+     * @return Number of tasks of the types.
+     */
+    int countOfType(String types) {
+        int count = 0;
+        for (int rank = 0; rank < TYPE_ORDER.length(); rank++) {
+            if (types.indexOf(TYPE_ORDER.charAt(rank)) >= 0) {
+                count += typeCounts[rank];
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of tasks with the specified completion status, in O(1) time.
+     *
+     * @param isDone Whether the tasks counted are done.
+     * @return Number of tasks with the completion status.
+     */
+    int countWithStatus(boolean isDone) {
+        return (isDone ? done : undone).size();
+    }
+}
@@ -0,0 +1,221 @@
+package carbon.task;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import carbon.exceptions.InvalidArgumentException;
+
+/**
+ * A TaskQuery selects the tasks that match every one of its terms, such as
+ * "type:D done:no before:2026-12-01 report".
+ * <p>
+ * Each term is written as "[key]:[value]", where the value is put in double quotes if it contains spaces:
+ * <ul>
+ *     <li>"type:T", "type:D" or "type:E" (or "todo", "deadline" or "event"), or several types
+ *     separated by commas, such as "type:D,E"</li>
+ *     <li>"done:yes" or "done:no"</li>
+ *     <li>"before:[date/time]", "after:[date/time]" or "on:[date]": a Deadline due, or an Event starting,
+ *     before, after or on the date/time</li>
+ *     <li>"text:[text]": the String representation of the task contains the text (case-insensitive)</li>
+ * </ul>
+ * Any other text in the query is a text term of its own. A query without any "[key]:[value]" terms
+ * is therefore a single text term, consisting of the whole query.
+ * <p>
+ * The query is parsed once into its terms, each of which can be checked against a task, or used by
+ * a {@link TaskQueryPlanner} to look up the tasks that may match it in an index.
+ */
+public final class TaskQuery {
+    // Matches a term "{key}:{value}" at the start of a word, where the value is quoted or has no whitespace
+    private static final Pattern TERM_PATTERN = Pattern.compile(
+            "(?<!\\S)(type|done|before|after|on|text):(\"[^\"]*\"|\\S*)", Pattern.CASE_INSENSITIVE);
+
+    private final String text;
+    private final List<Term> terms;
+    private final boolean isPlainText;
+
+    /**
+     * A condition on a task, which a task matching the query satisfies.
+     */
+    sealed interface Term permits TypeTerm, DoneTerm, DateTerm, TextTerm {
+        /**
+         * Returns <code>true</code> if the task satisfies the condition.
+         *
+         * @param task Task to be checked.
+         * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+         * @return Whether the task satisfies the condition.
+         */
+        boolean matches(Task task, long referenceEpochDay);
+    }
+
+    /**
+     * The task is of one of <code>types</code>, such as "DE" for Deadlines and Events.
+     */
+    record TypeTerm(String types) implements Term {
+        @Override
+        public boolean matches(Task task, long referenceEpochDay) {
+            return types.indexOf(task.getType()) >= 0;
+        }
+    }
+
+    record DoneTerm(boolean isDone) implements Term {
+        @Override
+        public boolean matches(Task task, long referenceEpochDay) {
+            return task.isDone() == isDone;
+        }
+    }
+
+    /**
+     * The task starts from <code>from</code> (inclusive) to <code>to</code> (exclusive),
+     * as described in {@link TaskIntervalIndex#startOf(Task, long)}.
+     */
+    record DateTerm(long from, long to) implements Term {
+        @Override
+        public boolean matches(Task task, long referenceEpochDay) {
+            long start = TaskIntervalIndex.startOf(task, referenceEpochDay);
+            return start >= from && start < to;
+        }
+    }
+
+    /**
+     * The String representation of the task contains <code>text</code>, which is in lowercase.
+     */
+    record TextTerm(String text) implements Term {
+        @Override
+        public boolean matches(Task task, long referenceEpochDay) {
+            return task.toString().toLowerCase().contains(text);
+        }
+    }
+
+    private TaskQuery(String text, List<Term> terms, boolean isPlainText) {
+        this.text = text;
+        this.terms = terms;
+        this.isPlainText = isPlainText;
+    }
+
+    /**
+     * Parses user input into a TaskQuery.
+     *
+     * @param text Query, such as "type:D done:no before:2026-12-01 report".
+     * @return The TaskQuery.
+     * @throws InvalidArgumentException If any term is not valid.
+     */
+    public static TaskQuery parse(String text) {
+        List<Term> terms = new ArrayList<>();
+        StringBuilder rest = new StringBuilder();
+        Matcher matcher = TERM_PATTERN.matcher(text);
+        int end = 0;
+        while (matcher.find()) {
+            rest.append(text, end, matcher.start()).append(' ');
+            end = matcher.end();
+            terms.add(parseTerm(matcher.group(1).toLowerCase(Locale.ROOT), matcher.group(2)));
+        }
+        boolean isPlainText = terms.isEmpty();
+        String remainder = isPlainText
+                ? text
+                : rest.append(text.substring(end)).toString().trim().replaceAll("\\s+", " ");
+        if (!remainder.isEmpty()) {
+            terms.add(new TextTerm(remainder.toLowerCase()));
+        }
+        return new TaskQuery(text, List.copyOf(terms), isPlainText);
+    }
+
+    private static Term parseTerm(String key, String value) {
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        if (value.isBlank()) {
+            throw new InvalidArgumentException(String.format("I expected something after \"%s:\"", key));
+        }
+        switch (key) {
+        case "type":
+            return parseTypes(value);
+        case "done":
+            return parseDone(value);
+        case "text":
+            return new TextTerm(value.toLowerCase());
+        default:
+            return parseDate(key, value);
+        }
+    }
+
+    private static Term parseTypes(String value) {
+        StringBuilder types = new StringBuilder();
+        for (String type : value.split(",")) {
+            types.append(switch (type.trim().toLowerCase(Locale.ROOT)) {
+                case "t", "todo" -> 'T';
+                case "d", "deadline" -> 'D';
+                case "e", "event" -> 'E';
+                default -> throw new InvalidArgumentException(
+                        "I expected T, D or E (or todo, deadline or event) after \"type:\"");
+            });
+        }
+        return new TypeTerm(types.toString());
+    }
+
+    private static Term parseDone(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "yes", "y", "true" -> new DoneTerm(true);
+            case "no", "n", "false" -> new DoneTerm(false);
+            default -> throw new InvalidArgumentException("I expected \"yes\" or \"no\" after \"done:\"");
+        };
+    }
+
+    private static Term parseDate(String key, String value) {
+        Temporal temporal = Temporal.parse(value);
+        if (temporal.getType() == TemporalType.TEXT) {
+            throw new InvalidArgumentException(String.format("I couldn't understand the date/time \"%s\"", value));
+        }
+        long referenceEpochDay = LocalDate.now().toEpochDay();
+        long start = temporal.getSortKey(referenceEpochDay);
+        long end = TaskIntervalIndex.endOf(temporal, true, referenceEpochDay);
+        // Tasks that are not indexed start at TEXT_SORT_KEY, so they are never before the end of a period
+        return switch (key) {
+            case "before" -> new DateTerm(Long.MIN_VALUE, start);
+            case "after" -> new DateTerm(end, Temporal.TEXT_SORT_KEY);
+            default -> new DateTerm(start, end);
+        };
+    }
+
+    List<Term> getTerms() {
+        return terms;
+    }
+
+    /**
+     * Returns <code>true</code> if the query has no "[key]:[value]" terms, so it only searches for its text.
+     *
+     * @return Whether the query is plain text.
+     */
+    public boolean isPlainText() {
+        return isPlainText;
+    }
+
+    /**
+     * Returns <code>true</code> if the task matches every term of the query.
+     *
+     * @param task Task to be checked.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Whether the task matches the query.
+     */
+    public boolean matches(Task task, long referenceEpochDay) {
+        for (Term term : terms) {
+            if (!term.matches(task, referenceEpochDay)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the query as it was entered.
+     *
+     * @return Text of the query.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,96 @@
+package carbon.task;
+
+import java.util.List;
+
+/**
+ * A TaskQueryPlanner decides how the tasks matching a {@link TaskQuery} are found, using the indices
+ * of a TaskList.
+ * <p>
+ * Each term of a query has an access path, which looks up every task that may match the term:
+ * <ul>
+ *     <li>"type": the tasks of each type, in a {@link TaskOrderIndex}</li>
+ *     <li>"done": the done or undone tasks, in a TaskOrderIndex</li>
+ *     <li>"before", "after" and "on": the tasks starting within the period, in a {@link TaskIntervalIndex}</li>
+ *     <li>"text": the tasks containing every trigram of the text, in a {@link TaskSearchIndex}</li>
+ * </ul>
+ * Each index counts the tasks it would look up (or an upper bound of them) in O(log n) time or better,
+ * so the plan takes the access path that looks up the fewest tasks, and only those tasks are checked
+ * against the other terms. If even that access path would look up at least half of the tasks,
+ * the plan is to scan every task instead, which also saves sorting the results back into the order
+ * of the TaskList.
+ */
+class TaskQueryPlanner {
+    private final TaskSearchIndex searchIndex;
+    private final TaskIntervalIndex intervalIndex;
+    private final TaskOrderIndex orderIndex;
+
+    /**
+     * How a query is run.
+     *
+     * @param accessPath Term whose index is used to look up the tasks, or <code>null</code> to scan every task.
+     * @param estimate Number of tasks that are expected to be checked against the query.
+     */
+    record Plan(TaskQuery.Term accessPath, int estimate) {
+        boolean isScan() {
+            return accessPath == null;
+        }
+    }
+
+    TaskQueryPlanner(TaskSearchIndex searchIndex, TaskIntervalIndex intervalIndex, TaskOrderIndex orderIndex) {
+        this.searchIndex = searchIndex;
+        this.intervalIndex = intervalIndex;
+        this.orderIndex = orderIndex;
+    }
+
+    /**
+     * Returns the number of tasks that the access path of a term would look up, or an upper bound of it.
+     */
+    private int countLookedUp(TaskQuery.Term term) {
+        if (term instanceof TaskQuery.TypeTerm typeTerm) {
+            return orderIndex.countOfType(typeTerm.types());
+        } else if (term instanceof TaskQuery.DoneTerm doneTerm) {
+            return orderIndex.countWithStatus(doneTerm.isDone());
+        } else if (term instanceof TaskQuery.DateTerm dateTerm) {
+            return intervalIndex.countStartingIn(dateTerm.from(), dateTerm.to());
+        }
+        return searchIndex.countCandidates(((TaskQuery.TextTerm) term).text());
+    }
+
+    /**
+     * Returns the cheapest plan for a query.
+     *
+     * @param query Query to be run.
+     * @param taskCount Number of tasks in the TaskList.
+     * @return Plan for the query.
+     */
+    Plan plan(TaskQuery query, int taskCount) {
+        Plan best = new Plan(null, taskCount);
+        for (TaskQuery.Term term : query.getTerms()) {
+            int count = countLookedUp(term);
+            if (count < best.estimate()) {
+                best = new Plan(term, count);
+            }
+        }
+        return best.estimate() * 2L >= taskCount ? new Plan(null, taskCount) : best;
+    }
+
+    /**
+     * Looks up the tasks that may match a query by the access path of a plan, in no particular order.
+     * Each task is looked up at most once.
+     *
+     * @param plan Plan that does not scan every task.
+     * @param referenceEpochDay Epoch day of the date on which a time without a date falls.
+     * @return Tasks that may match the query.
+     */
+    List<Task> lookUp(Plan plan, long referenceEpochDay) {
+        TaskQuery.Term term = plan.accessPath();
+        if (term instanceof TaskQuery.TypeTerm typeTerm) {
+            return orderIndex.tasksOfType(typeTerm.types());
+        } else if (term instanceof TaskQuery.DoneTerm doneTerm) {
+            return orderIndex.tasksWithStatus(doneTerm.isDone());
+        } else if (term instanceof TaskQuery.DateTerm dateTerm) {
+            return intervalIndex.findStartingIn(dateTerm.from(), dateTerm.to(), referenceEpochDay);
+        }
+        return searchIndex.search(((TaskQuery.TextTerm) term).text());
+    }
+}
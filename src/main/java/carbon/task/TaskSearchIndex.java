@@ -0,0 +1,183 @@
+package carbon.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * A TaskSearchIndex finds the tasks whose String representation contains some text (case-insensitive),
+ * without scanning every task.
+ * <p>
+ * Each task is given an id when added, and the lowercase String representation of the task is
+ * split into trigrams (every run of three consecutive characters). For each trigram, the index keeps
+ * a postings list of the ids of the tasks containing it. As ids only increase, every postings list
+ * is sorted, so the candidates for a query are found by intersecting the postings lists of the
+ * query's trigrams. Each candidate is then checked against the full query.
+ * <p>
+ * Removed tasks are left in the postings lists until more than half of all ids belong to removed
+ * tasks, at which point the index is rebuilt.
+ */
+class TaskSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+
+    private final HashMap<Long, Postings> postings = new HashMap<>();
+    private final IdentityHashMap<Task, Integer> ids = new IdentityHashMap<>();
+    // Indexed by id, null once the task has been removed
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private final ArrayList<String> texts = new ArrayList<>();
+
+    /**
+     * A sorted list of task ids.
+     */
+    private static class Postings {
+        private int[] ids = new int[4];
+        private int size;
+
+        private void add(int id) {
+            if (size > 0 && ids[size - 1] == id) {
+                // Trigram appears more than once in the same task
+                return;
+            }
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        private boolean contains(int id) {
+            return Arrays.binarySearch(ids, 0, size, id) >= 0;
+        }
+    }
+
+    private static long gramAt(String text, int index) {
+        return ((long) text.charAt(index) << 32) | ((long) text.charAt(index + 1) << 16) | text.charAt(index + 2);
+    }
+
+    /**
+     * Adds a task to the index.
+     *
+     * @param task Task to be added.
+     */
+    void add(Task task) {
+        int id = tasks.size();
+        String text = task.toString().toLowerCase();
+        tasks.add(task);
+        texts.add(text);
+        ids.put(task, id);
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            postings.computeIfAbsent(gramAt(text, i), gram -> new Postings()).add(id);
+        }
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task Task to be removed.
+     */
+    void remove(Task task) {
+        Integer id = ids.remove(task);
+        if (id == null) {
+            return;
+        }
+        tasks.set(id, null);
+        texts.set(id, null);
+        if (ids.size() * 2 < tasks.size()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Updates the index after the String representation of a task has changed.
+     *
+     * @param task Task that has changed.
+     */
+    void update(Task task) {
+        remove(task);
+        add(task);
+    }
+
+    /**
+     * Removes every task from the index.
+     */
+    void clear() {
+        postings.clear();
+        ids.clear();
+        tasks.clear();
+        texts.clear();
+    }
+
+    private void rebuild() {
+        List<Task> remaining = tasks.stream().filter(task -> task != null).toList();
+        clear();
+        remaining.forEach(this::add);
+    }
+
+    /**
+     * Returns the tasks whose String representation contains <code>query</code> (case-insensitive),
+     * in no particular order.
+     *
+     * @param query Text to search for.
+     * @return Matching tasks.
+     */
+    List<Task> search(String query) {
+        String text = query.toLowerCase();
+        List<Task> results = new ArrayList<>();
+        if (text.length() < GRAM_LENGTH) {
+            // Too short to have a trigram, so every task is a candidate
+            for (int id = 0; id < tasks.size(); id++) {
+                addIfMatches(results, id, text);
+            }
+            return results;
+        }
+
+        Postings[] lists = new Postings[text.length() - GRAM_LENGTH + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gramAt(text, i));
+            if (lists[i] == null) {
+                return results;
+            }
+        }
+        // Go through the shortest postings list, and look up the others
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        for (int i = 0; i < lists[0].size; i++) {
+            int id = lists[0].ids[i];
+            boolean isCandidate = true;
+            for (int j = 1; j < lists.length && isCandidate; j++) {
+                isCandidate = lists[j].contains(id);
+            }
+            if (isCandidate) {
+                addIfMatches(results, id, text);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Returns the number of tasks that {@link #search(String)} would compare against <code>query</code>,
+     * which is at least the number of matching tasks, without searching.
+     *
+     * @param query Text to search for.
+     * @return Number of candidates for the query.
+     */
+    int countCandidates(String query) {
+        String text = query.toLowerCase();
+        if (text.length() < GRAM_LENGTH) {
+            return ids.size();
+        }
+        int count = Integer.MAX_VALUE;
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            Postings list = postings.get(gramAt(text, i));
+            count = Math.min(count, list == null ? 0 : list.size);
+        }
+        return count;
+    }
+
+    private void addIfMatches(List<Task> results, int id, String text) {
+        String taskText = texts.get(id);
+        if (taskText != null && taskText.contains(text)) {
+            results.add(tasks.get(id));
+        }
+    }
+}
@@ -3,10 +3,10 @@ package carbon.task;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.util.Locale;
-import java.util.stream.Stream;
+import java.time.temporal.ChronoUnit;
 
 /**
  * A Temporal stores an object that fits into one of the following categories:
@@ -22,46 +22,18 @@ public class Temporal implements Comparable<Temporal> {
             + "please enter in the format \"YYYY-MM-DD HH24:MI\" "
             + "in order for features such as sorting to function accurately.";
 
-    // US Locale is specified in order to be consistent across different operating systems
-    // See https://stackoverflow.com/questions/70059067/is-datetimeformatter-operating-system-dependent
-    // for more info
-    private static final DateTimeFormatter[] DATE_FORMATTERS = Stream.of(
-            "d/M/yyyy",
-            "yyyy/M/d",
-            "d-M-yyyy",
-            "yyyy-M-d",
-            "d MMM yyyy",
-            "yyyy MMM d"
-    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
-
-    private static final DateTimeFormatter[] TIME_FORMATTERS = Stream.of(
-            "H:mm",
-            "h:mma",
-            "ha"
-    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
+    /**
+     * Sort key of every text-type Temporal, which places it after a Temporal of any other type.
+     */
+    public static final long TEXT_SORT_KEY = Long.MAX_VALUE;
 
-    private static final DateTimeFormatter[] DATE_TIME_FORMATTERS = Stream.of(
-            "d/M/yyyy H:mm",
-            "yyyy/M/d H:mm",
-            "d-M-yyyy H:mm",
-            "yyyy-M-d H:mm",
-            "d MMM yyyy H:mm",
-            "yyyy MMM d H:mm",
-            "d/M/yyyy h:mma",
-            "yyyy/M/d h:mma",
-            "d-M-yyyy h:mma",
-            "yyyy-M-d h:mma",
-            "d MMM yyyy h:mma",
-            "yyyy MMM d h:mma",
-            "d/M/yyyy ha",
-            "yyyy/M/d ha",
-            "d-M-yyyy ha",
-            "yyyy-M-d ha",
-            "d MMM yyyy ha",
-            "yyyy MMM d ha"
-    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
+    static final long SECONDS_PER_DAY = 86400;
+    private static final char STORAGE_TEXT_SEPARATOR = ':';
+    private static final TemporalType[] TYPES = TemporalType.values();
 
     private final TemporalType type;
+    // Epoch second of the datetime represented, or second of day for a time-type Temporal
+    private final long sortKey;
     private LocalDate date;
     private LocalTime time;
     private LocalDateTime dateTime;
@@ -70,21 +42,45 @@ public class Temporal implements Comparable<Temporal> {
     private Temporal(LocalDate date) {
         this.date = date;
         type = TemporalType.DATE;
+        sortKey = date.toEpochDay() * SECONDS_PER_DAY;
     }
 
     private Temporal(LocalTime time) {
         this.time = time;
         type = TemporalType.TIME;
+        sortKey = time.toSecondOfDay();
     }
 
     private Temporal(LocalDateTime dateTime) {
         this.dateTime = dateTime;
         type = TemporalType.DATETIME;
+        sortKey = dateTime.toEpochSecond(ZoneOffset.UTC);
     }
 
     private Temporal(String text) {
         this.text = text;
         type = TemporalType.TEXT;
+        sortKey = TEXT_SORT_KEY;
+    }
+
+    /**
+     * Returns a new date-type Temporal object representing the specified date.
+     *
+     * @param date Date of the Temporal object.
+     * @return Date-type Temporal object.
+     */
+    public static Temporal of(LocalDate date) {
+        return new Temporal(date);
+    }
+
+    /**
+     * Returns a new time-type Temporal object representing the specified time.
+     *
+     * @param time Time of the Temporal object.
+     * @return Time-type Temporal object.
+     */
+    public static Temporal of(LocalTime time) {
+        return new Temporal(time);
     }
 
     /**
@@ -98,26 +94,118 @@ public class Temporal implements Comparable<Temporal> {
     }
 
     /**
-     * Returns the TemporalType used for this Temporal object.
+     * Returns a new text-type Temporal object containing the specified text, without attempting to parse it.
      *
-     * @return TemporalType used for this Temporal object.
+     * @param text Text of the Temporal object.
+     * @return Text-type Temporal object.
      */
-    public TemporalType getType() {
-        return type;
+    public static Temporal ofText(String text) {
+        return new Temporal(text);
     }
 
     /**
-     * Returns the input String, capitalising "am"/"pm" at the end of the String (if applicable).
+     * Returns a new Temporal object of the specified type from its canonical value, without guessing its format.
      * <p>
-     * DateTimeFormatter looks for capital "AM"/"PM", hence this is necessary for parsing.
+     * Dates, times and datetimes are expected in ISO-8601 format (e.g. "2024-07-01", "13:00" and
+     * "2024-07-01T13:00" respectively). Text is taken as is.
      *
-     * @param text Input String, possibly ending in "am"/"pm".
-     * @return String with ending "am"/"pm" capitalised.
+     * @param type Type of the Temporal object.
+     * @param value Canonical value of the Temporal object.
+     * @return Temporal object of the specified type.
+     * @throws java.time.format.DateTimeParseException If the value is not in ISO-8601 format.
      */
-    private static String capitaliseAmPm(String text) {
-        return text.endsWith("am") || text.endsWith("pm")
-                ? text.substring(0, text.length() - 2) + text.substring(text.length() - 2).toUpperCase()
-                : text;
+    public static Temporal of(TemporalType type, String value) {
+        return switch (type) {
+            case DATE -> new Temporal(LocalDate.parse(value));
+            case TIME -> new Temporal(LocalTime.parse(value));
+            case DATETIME -> new Temporal(LocalDateTime.parse(value));
+            case TEXT -> new Temporal(value);
+        };
+    }
+
+    /**
+     * Returns a Temporal object from its storage text, as returned by {@link #toStorageText()}.
+     * <p>
+     * Storage text written before the type was stored alongside the value is parsed using {@link #parse(String)}.
+     *
+     * @param storageText Storage text of the Temporal object.
+     * @return Temporal object represented by the storage text.
+     */
+    public static Temporal fromStorageText(String storageText) {
+        int separatorIndex = storageText.indexOf(STORAGE_TEXT_SEPARATOR);
+        String typeName = separatorIndex < 0 ? "" : storageText.substring(0, separatorIndex);
+        for (TemporalType type : TYPES) {
+            if (type.name().equals(typeName)) {
+                try {
+                    return of(type, storageText.substring(separatorIndex + 1));
+                } catch (DateTimeParseException e) {
+                    // Text that merely looks like storage text, parse it below instead
+                }
+            }
+        }
+        return parse(storageText);
+    }
+
+    /**
+     * Returns a new Temporal object of the specified type from its epoch value.
+     *
+     * @param type Type of the Temporal object, which cannot be {@link TemporalType#TEXT}.
+     * @param value Epoch value, as returned by {@link #toEpochValue()}.
+     * @return Temporal object of the specified type.
+     * @see #toEpochValue()
+     */
+    public static Temporal ofEpochValue(TemporalType type, long value) {
+        return switch (type) {
+            case DATE -> new Temporal(LocalDate.ofEpochDay(value));
+            case TIME -> new Temporal(LocalTime.ofNanoOfDay(value));
+            case DATETIME -> new Temporal(LocalDateTime.ofEpochSecond(value, 0, ZoneOffset.UTC));
+            case TEXT -> throw new IllegalArgumentException("A text-type Temporal has no epoch value");
+        };
+    }
+
+    /**
+     * Returns the value of the Temporal as a single number:
+     * <ul>
+     *     <li>A date is represented by its epoch day</li>
+     *     <li>A time is represented by its nano of day</li>
+     *     <li>A datetime is represented by its epoch second in UTC</li>
+     * </ul>
+     *
+     * @return Epoch value of the Temporal.
+     * @throws IllegalStateException If the Temporal is text-type.
+     */
+    public long toEpochValue() {
+        return switch (type) {
+            case DATE -> date.toEpochDay();
+            case TIME -> time.toNanoOfDay();
+            case DATETIME -> dateTime.toEpochSecond(ZoneOffset.UTC);
+            case TEXT -> throw new IllegalStateException("A text-type Temporal has no epoch value");
+        };
+    }
+
+    /**
+     * Returns a Temporal that is later than this one by the specified amount.
+     * A time or text-type Temporal does not fall on any particular date, so it is returned unchanged.
+     *
+     * @param amount Amount to add, in terms of <code>unit</code>.
+     * @param unit Unit of the amount, such as {@link ChronoUnit#WEEKS}.
+     * @return Temporal moved later by the amount.
+     */
+    public Temporal plus(long amount, ChronoUnit unit) {
+        return switch (type) {
+            case DATE -> new Temporal(date.plus(amount, unit));
+            case DATETIME -> new Temporal(dateTime.plus(amount, unit));
+            case TIME, TEXT -> this;
+        };
+    }
+
+    /**
+     * Returns the TemporalType used for this Temporal object.
+     *
+     * @return TemporalType used for this Temporal object.
+     */
+    public TemporalType getType() {
+        return type;
     }
 
     private static String decapitaliseAmPm(String text) {
@@ -133,16 +221,7 @@ public class Temporal implements Comparable<Temporal> {
      * @return A date-type Temporal if possible, <code>null</code> otherwise.
      */
     public static Temporal parseToDate(String text) {
-        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
-            try {
-                LocalDate date = LocalDate.parse(text, formatter);
-                return new Temporal(date);
-            } catch (DateTimeParseException e) {
-                // Text does not fit this format, continue to next formatter
-            }
-        }
-        // Failed to parse
-        return null;
+        return parseToType(text, TemporalType.DATE);
     }
 
     /**
@@ -152,18 +231,7 @@ public class Temporal implements Comparable<Temporal> {
      * @return A time-type Temporal if possible, <code>null</code> otherwise.
      */
     public static Temporal parseToTime(String text) {
-        text = capitaliseAmPm(text);
-
-        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
-            try {
-                LocalTime time = LocalTime.parse(text, formatter);
-                return new Temporal(time);
-            } catch (DateTimeParseException e) {
-                // Text does not fit this format, continue to next formatter
-            }
-        }
-        // Failed to parse
-        return null;
+        return parseToType(text, TemporalType.TIME);
     }
 
     /**
@@ -173,55 +241,43 @@ public class Temporal implements Comparable<Temporal> {
      * @return A datetime-type Temporal if possible, <code>null</code> otherwise.
      */
     public static Temporal parseToDateTime(String text) {
-        text = capitaliseAmPm(text);
+        return parseToType(text, TemporalType.DATETIME);
+    }
 
-        for (DateTimeFormatter formatter : DATE_TIME_FORMATTERS) {
-            try {
-                LocalDateTime dateTime = LocalDateTime.parse(text, formatter);
-                return new Temporal(dateTime);
-            } catch (DateTimeParseException e) {
-                // Text does not fit this format, continue to next formatter
-            }
-        }
-        // Failed to parse
-        return null;
+    private static Temporal parseToType(String text, TemporalType type) {
+        Temporal temporal = TemporalParser.parse(text);
+        return temporal != null && temporal.type == type ? temporal : null;
     }
 
     /**
      * Returns a Temporal object of the appropriate type by parsing the input text.
      * <p>
-     * First attempts to parse the text into a datetime-type Temporal.
-     * On failure, attempts to parse into a date-type Temporal.
-     * On failure, attempts to parse into a time-type Temporal.
-     * On failure, returns a text-type Temporal.
+     * The text is parsed into a datetime-type, date-type or time-type Temporal, depending on which
+     * of the supported layouts it fits (see {@link TemporalParser}).
+     * Otherwise, returns a text-type Temporal.
      *
      * @param text Text to be parsed.
      * @return Temporal object obtained by parsing the text.
      */
     public static Temporal parse(String text) {
-        // Try parsing to datetime, then date, then time
-        Temporal temporal = parseToDateTime(text);
-        if (temporal == null) {
-            temporal = parseToDate(text);
-        }
-        if (temporal == null) {
-            temporal = parseToTime(text);
-        }
-        if (temporal == null) {
-            // Cannot be parsed
-            temporal = new Temporal(text);
-        }
-
-        return temporal;
+        Temporal temporal = TemporalParser.parse(text);
+        return temporal != null ? temporal : new Temporal(text);
     }
 
-    private LocalDateTime toDateTime() {
-        return switch (type) {
-            case DATE -> date.atStartOfDay();
-            case TIME -> time.atDate(LocalDate.now());
-            case DATETIME -> dateTime;
-            case TEXT -> throw new IllegalStateException();
-        };
+    /**
+     * Returns a key that orders Temporal objects by their datetime, to the second.
+     * Comparing sort keys is equivalent to {@link #compareTo(Temporal)}, but does not allocate any objects.
+     * <p>
+     * A text-type Temporal has the key {@link #TEXT_SORT_KEY}, which is greater than any other key.
+     * A date-type Temporal is considered to have a time of 00:00 (midnight).
+     * A time-type Temporal is considered to have the reference date. The same reference date should
+     * be used for every key that is compared, so that the order is consistent (even across midnight).
+     *
+     * @param referenceEpochDay Epoch day of the date on which a time-type Temporal falls.
+     * @return Sort key of the Temporal.
+     */
+    public long getSortKey(long referenceEpochDay) {
+        return type == TemporalType.TIME ? referenceEpochDay * SECONDS_PER_DAY + sortKey : sortKey;
     }
 
     /**
@@ -230,19 +286,30 @@ public class Temporal implements Comparable<Temporal> {
      * A text-type Temporal is considered to have a datetime later than a Temporal of any other type.
      * A date-type Temporal is considered to have a time of 00:00 (midnight).
      * A time-type Temporal is considered to have the current date.
+     *
+     * @see #getSortKey(long)
      */
     @Override
     public int compareTo(Temporal other) {
-        if (type == TemporalType.TEXT) {
-            return other.type == TemporalType.TEXT ? 0 : 1;
-        }
-        if (other.type == TemporalType.TEXT) {
-            return -1;
-        }
+        boolean hasTime = type == TemporalType.TIME || other.type == TemporalType.TIME;
+        long referenceEpochDay = hasTime ? LocalDate.now().toEpochDay() : 0;
+        return Long.compare(getSortKey(referenceEpochDay), other.getSortKey(referenceEpochDay));
+    }
 
-        LocalDateTime thisDateTime = toDateTime();
-        LocalDateTime otherDateTime = other.toDateTime();
-        return thisDateTime.compareTo(otherDateTime);
+    /**
+     * Returns a String, formatted for text storage of the Temporal.
+     * This consists of its type and its canonical value, separated by a colon (e.g. "DATE:2024-07-01").
+     *
+     * @return Representation of the Temporal in text storage.
+     * @see #of(TemporalType, String)
+     */
+    public String toStorageText() {
+        return type.name() + STORAGE_TEXT_SEPARATOR + switch (type) {
+            case DATE -> date.toString();
+            case TIME -> time.toString();
+            case DATETIME -> dateTime.toString();
+            case TEXT -> text;
+        };
     }
 
     /**
@@ -0,0 +1,272 @@
+package carbon.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.YearMonth;
+
+/**
+ * TemporalParser parses text into a Temporal in a single pass, without throwing exceptions.
+ * <p>
+ * The text is first split into tokens (runs of digits, runs of letters, and single symbols),
+ * which are then matched against the supported layouts. A date is one of
+ * <code>d/M/yyyy</code>, <code>yyyy/M/d</code>, <code>d-M-yyyy</code>, <code>yyyy-M-d</code>,
+ * <code>d MMM yyyy</code> or <code>yyyy MMM d</code>, and a time is one of <code>H:mm</code>,
+ * <code>h:mma</code> or <code>ha</code>. A datetime is a date followed by a space and a time.
+ * <p>
+ * The results are identical to parsing with the equivalent <code>DateTimeFormatter</code> patterns
+ * (in the US locale and the default smart resolver style), including their quirks: numbers may have
+ * leading zeros, a year with more than four digits must be preceded by "+", a day past the end of
+ * the month is moved to the last day of the month, "24:00" is midnight of the following day,
+ * and an hour of 0 is accepted before "am"/"pm".
+ */
+class TemporalParser {
+    private static final int MAX_TOKENS = 11;
+    private static final int DATE_TOKENS = 5;
+    private static final int MAX_DIGITS = 19;
+    private static final long MAX_YEAR = Year.MAX_VALUE;
+    // Larger than any value that can be valid, so that longer numbers do not overflow
+    private static final long SATURATED_VALUE = MAX_YEAR + 1;
+
+    private static final String[] MONTHS = {
+        "Jan", "Feb", "Mar", "Apr", "May", "Jun", "Jul", "Aug", "Sep", "Oct", "Nov", "Dec"
+    };
+
+    private static final byte DIGITS = 0;
+    private static final byte LETTERS = 1;
+    private static final byte SYMBOL = 2;
+
+    private final String text;
+    private final byte[] kinds = new byte[MAX_TOKENS];
+    private final int[] starts = new int[MAX_TOKENS];
+    private final int[] ends = new int[MAX_TOKENS];
+    private final long[] values = new long[MAX_TOKENS];
+    private final boolean[] hasPlusSigns = new boolean[MAX_TOKENS];
+    private int tokenCount;
+
+    // Set by matchTime
+    private LocalTime time;
+    private boolean isNextDay;
+
+    private TemporalParser(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses text into a date-type, time-type or datetime-type Temporal.
+     *
+     * @param text Text to be parsed.
+     * @return Temporal of the appropriate type, or <code>null</code> if the text does not fit any layout.
+     */
+    static Temporal parse(String text) {
+        TemporalParser parser = new TemporalParser(text);
+        return parser.tokenize() ? parser.match() : null;
+    }
+
+    /**
+     * Splits the text into tokens.
+     *
+     * @return <code>false</code> if there are more tokens than any layout has.
+     */
+    private boolean tokenize() {
+        int i = 0;
+        while (i < text.length()) {
+            if (tokenCount == MAX_TOKENS) {
+                return false;
+            }
+            char c = text.charAt(i);
+            boolean hasPlusSign = c == '+' && i + 1 < text.length() && isDigit(text.charAt(i + 1));
+            int start = hasPlusSign ? i + 1 : i;
+            int end = start + 1;
+            byte kind;
+            if (isDigit(text.charAt(start))) {
+                kind = DIGITS;
+                long value = 0;
+                for (end = start; end < text.length() && isDigit(text.charAt(end)); end++) {
+                    value = Math.min(value * 10 + text.charAt(end) - '0', SATURATED_VALUE);
+                }
+                values[tokenCount] = value;
+            } else if (isLetter(c)) {
+                kind = LETTERS;
+                while (end < text.length() && isLetter(text.charAt(end))) {
+                    end++;
+                }
+            } else {
+                kind = SYMBOL;
+            }
+            kinds[tokenCount] = kind;
+            starts[tokenCount] = start;
+            ends[tokenCount] = end;
+            hasPlusSigns[tokenCount] = hasPlusSign;
+            tokenCount++;
+            i = end;
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private Temporal match() {
+        if (matchTime(0)) {
+            return Temporal.of(time);
+        }
+        if (tokenCount == DATE_TOKENS) {
+            // Day-first layouts are tried before year-first layouts
+            LocalDate date = matchDate(true);
+            date = date == null ? matchDate(false) : date;
+            return date == null ? null : Temporal.of(date);
+        }
+        if (isSymbol(DATE_TOKENS, ' ') && matchTime(DATE_TOKENS + 1)) {
+            for (boolean isDayFirst : new boolean[] {true, false}) {
+                LocalDateTime dateTime = combine(matchDate(isDayFirst));
+                if (dateTime != null) {
+                    return Temporal.of(dateTime);
+                }
+            }
+        }
+        return null;
+    }
+
+    private LocalDateTime combine(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        if (isNextDay) {
+            if (date.equals(LocalDate.MAX)) {
+                return null;
+            }
+            date = date.plusDays(1);
+        }
+        return date.atTime(time);
+    }
+
+    /**
+     * Matches the first {@value #DATE_TOKENS} tokens against the date layouts.
+     *
+     * @param isDayFirst Whether the day comes first (otherwise, the year comes first).
+     * @return Date represented by the tokens, or <code>null</code> if they do not represent a valid date.
+     */
+    private LocalDate matchDate(boolean isDayFirst) {
+        int dayIndex = isDayFirst ? 0 : 4;
+        int yearIndex = isDayFirst ? 4 : 0;
+        if (!isNumber(dayIndex, 1, MAX_DIGITS) || !isYear(yearIndex)) {
+            return null;
+        }
+
+        long month;
+        if (isSymbol(1, '/') && isSymbol(3, '/') || isSymbol(1, '-') && isSymbol(3, '-')) {
+            month = isNumber(2, 1, MAX_DIGITS) ? values[2] : -1;
+        } else if (isSymbol(1, ' ') && isSymbol(3, ' ')) {
+            month = monthOf(2);
+        } else {
+            return null;
+        }
+
+        long day = values[dayIndex];
+        long year = values[yearIndex];
+        if (month < 1 || month > 12 || day < 1 || day > 31 || year < 1 || year > MAX_YEAR) {
+            return null;
+        }
+        YearMonth yearMonth = YearMonth.of((int) year, (int) month);
+        return yearMonth.atDay((int) Math.min(day, yearMonth.lengthOfMonth()));
+    }
+
+    /**
+     * Matches the tokens from <code>start</code> onwards against the time layouts,
+     * setting {@link #time} and {@link #isNextDay} if successful.
+     *
+     * @return Whether the tokens represent a valid time.
+     */
+    private boolean matchTime(int start) {
+        int length = tokenCount - start;
+        boolean hasMinute = length >= 3 && isSymbol(start + 1, ':') && isNumber(start + 2, 2, 2);
+        if (!isNumber(start, 1, MAX_DIGITS) || (length != 2 && !hasMinute)) {
+            return false;
+        }
+        long hour = values[start];
+        long minute = hasMinute ? values[start + 2] : 0;
+        if (minute > 59) {
+            return false;
+        }
+
+        isNextDay = false;
+        if (length == 3 && hasMinute) {
+            // H:mm
+            if (hour == 24 && minute == 0) {
+                isNextDay = true;
+                hour = 0;
+            }
+            if (hour > 23) {
+                return false;
+            }
+        } else if (length == 4 && hasMinute || length == 2) {
+            // h:mma or ha
+            int amPm = amPmOf(tokenCount - 1);
+            if (amPm < 0 || hour > 12) {
+                return false;
+            }
+            hour = hour % 12 + amPm * 12;
+        } else {
+            return false;
+        }
+        time = LocalTime.of((int) hour, (int) minute);
+        return true;
+    }
+
+    private boolean isSymbol(int index, char symbol) {
+        return index < tokenCount && kinds[index] == SYMBOL && text.charAt(starts[index]) == symbol;
+    }
+
+    private boolean isNumber(int index, int minDigits, int maxDigits) {
+        if (index >= tokenCount) {
+            return false;
+        }
+        int digits = ends[index] - starts[index];
+        return kinds[index] == DIGITS && !hasPlusSigns[index] && digits >= minDigits && digits <= maxDigits;
+    }
+
+    /**
+     * Returns <code>true</code> if the token is a year, which has exactly four digits,
+     * or more than four digits preceded by "+".
+     */
+    private boolean isYear(int index) {
+        int digits = ends[index] - starts[index];
+        return kinds[index] == DIGITS && digits <= MAX_DIGITS && (hasPlusSigns[index] ? digits > 4 : digits == 4);
+    }
+
+    private int monthOf(int index) {
+        if (kinds[index] != LETTERS) {
+            return -1;
+        }
+        for (int i = 0; i < MONTHS.length; i++) {
+            if (text.regionMatches(starts[index], MONTHS[i], 0, 3) && ends[index] - starts[index] == 3) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns 0 for "AM" and 1 for "PM" (also accepted in lowercase), or -1 if the token is neither.
+     */
+    private int amPmOf(int index) {
+        if (kinds[index] != LETTERS || ends[index] - starts[index] != 2) {
+            return -1;
+        }
+        char first = text.charAt(starts[index]);
+        char second = text.charAt(starts[index] + 1);
+        boolean isUpperCase = second == 'M' && (first == 'A' || first == 'P');
+        boolean isLowerCase = second == 'm' && (first == 'a' || first == 'p');
+        if (!isUpperCase && !isLowerCase) {
+            return -1;
+        }
+        return first == 'A' || first == 'a' ? 0 : 1;
+    }
+}
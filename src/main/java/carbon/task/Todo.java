@@ -6,6 +6,8 @@ import java.time.LocalDateTime;
  * Todo is a Task with no date/time attached.
  */
 public class Todo extends Task {
+    private static final Temporal LATEST = Temporal.of(LocalDateTime.MAX);
+
     /**
      * Creates a Todo with the specified description.
      *
@@ -15,12 +17,20 @@ public class Todo extends Task {
         super('T', description);
     }
 
+    @Override
+    public Todo copy() {
+        Todo copy = new Todo(description);
+        copy.isDone = isDone;
+        copy.setId(getId());
+        return copy;
+    }
+
     /**
      * {@inheritDoc}
      * A Todo is considered to have the latest possible datetime.
      */
     @Override
     public Temporal toDateTime() {
-        return Temporal.of(LocalDateTime.MAX);
+        return LATEST;
     }
 }
@@ -0,0 +1,227 @@
+package carbon.utils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import carbon.exceptions.InvalidFileFormatException;
+import carbon.task.Deadline;
+import carbon.task.Event;
+import carbon.task.Recurrence;
+import carbon.task.Task;
+import carbon.task.Temporal;
+import carbon.task.TemporalType;
+import carbon.task.Todo;
+
+/**
+ * BinaryTaskFile contains static methods that convert tasks to and from the binary snapshot format.
+ * <p>
+ * A snapshot consists of a header (magic number, format version and sequence number of the last
+ * journal record it contains), the id to be given to the next task, the number of tasks,
+ * then each task in order:
+ * <ul>
+ *     <li>Type (1 byte) and flags (1 byte, bit 0 is set if the task is done, bit 1 if it repeats)</li>
+ *     <li>Id (8 bytes)</li>
+ *     <li>Description, as a length-prefixed UTF-8 string</li>
+ *     <li>Zero to two temporals (due date/time of a Deadline, start and end of an Event,
+ *     of the first occurrence if the task repeats)</li>
+ *     <li>If the task repeats, the index of its current occurrence (4 bytes), and its recurrence rule as a
+ *     length-prefixed UTF-8 string (see {@link Recurrence#toStorageText()})</li>
+ * </ul>
+ * A temporal is stored as its TemporalType ordinal (1 byte), followed by its epoch value (8 bytes),
+ * or a length-prefixed UTF-8 string if it is text-type. As nothing has to be parsed, a snapshot is
+ * decoded directly from a buffer holding the whole file, read with a single read. The file is not
+ * memory-mapped, as a mapped file stays mapped until the buffer is garbage-collected, and cannot be
+ * replaced by the next snapshot on Windows until then.
+ * <p>
+ * Snapshots written before tasks had ids (version 1) have neither the next id nor the task ids,
+ * and are read with every task's id set to {@link Task#NO_ID}. Snapshots written before tasks could
+ * repeat (version 2) are read as they are, as none of their tasks have the repeating flag set.
+ */
+public class BinaryTaskFile {
+    private static final int MAGIC = 0x4352424E; // "CRBN"
+    private static final short VERSION = 3;
+    private static final short VERSION_WITHOUT_RECURRENCE = 2;
+    private static final short VERSION_WITHOUT_IDS = 1;
+    private static final int HEADER_SIZE = Integer.BYTES + Short.BYTES + Long.BYTES;
+    private static final byte DONE_FLAG = 1;
+    private static final byte RECURRING_FLAG = 2;
+    private static final TemporalType[] TEMPORAL_TYPES = TemporalType.values();
+
+    /**
+     * The contents of a snapshot's header.
+     *
+     * @param sequence Sequence number of the last journal record contained in the snapshot.
+     * @param nextId Id to be given to the next task added.
+     */
+    public record Header(long sequence, long nextId) {
+    }
+
+    /**
+     * Encodes the tasks into the body of a snapshot.
+     * This captures the current state of the tasks, which may then be written on another thread.
+     *
+     * @param tasks The list of tasks.
+     * @param nextId Id to be given to the next task added.
+     * @return Encoded tasks.
+     */
+    public static byte[] encode(List<Task> tasks, long nextId) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(tasks.size() * 40 + Long.BYTES + Integer.BYTES);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(nextId);
+            out.writeInt(tasks.size());
+            for (Task task : tasks) {
+                writeTask(out, task);
+            }
+        } catch (IOException e) {
+            // Not thrown by ByteArrayOutputStream
+            throw new RuntimeException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        out.writeByte(task.getType());
+        out.writeByte((task.isDone() ? DONE_FLAG : 0) | (task.isRecurring() ? RECURRING_FLAG : 0));
+        out.writeLong(task.getId());
+        writeString(out, task.getDescription());
+        if (task instanceof Deadline deadline) {
+            writeTemporal(out, deadline.getFirstDueBy());
+        } else if (task instanceof Event event) {
+            writeTemporal(out, event.getFirstStart());
+            writeTemporal(out, event.getFirstEnd());
+        }
+        if (task.isRecurring()) {
+            out.writeInt(task.getOccurrence());
+            writeString(out, task.getRecurrence().toStorageText());
+        }
+    }
+
+    private static void writeTemporal(DataOutputStream out, Temporal temporal) throws IOException {
+        out.writeByte(temporal.getType().ordinal());
+        if (temporal.getType() == TemporalType.TEXT) {
+            writeString(out, temporal.toString());
+        } else {
+            out.writeLong(temporal.toEpochValue());
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String text) throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Writes a snapshot consisting of the header and encoded tasks.
+     *
+     * @param out Stream to write to.
+     * @param sequence Sequence number of the last journal record contained in the snapshot.
+     * @param body Tasks encoded by {@link #encode(List, long)}.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static void write(OutputStream out, long sequence, byte[] body) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeShort(VERSION);
+        data.writeLong(sequence);
+        data.write(body);
+        data.flush();
+    }
+
+    /**
+     * Reads all tasks in a snapshot file into <code>tasks</code>.
+     *
+     * @param file Snapshot file.
+     * @param tasks List to add the tasks to.
+     * @return Header of the snapshot. The next id is 1 if the snapshot does not have ids.
+     * @throws IOException If the file could not be read.
+     * @throws InvalidFileFormatException If the file is not a valid snapshot.
+     * @throws java.nio.BufferUnderflowException If the file ends before the last task.
+     */
+    public static Header read(File file, List<Task> tasks) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE + Integer.BYTES) {
+                throw new InvalidFileFormatException();
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(channel.size()));
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // Reads until the buffer is full, or the file ends
+            }
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                throw new InvalidFileFormatException();
+            }
+            short version = buffer.getShort();
+            if (version != VERSION && version != VERSION_WITHOUT_RECURRENCE && version != VERSION_WITHOUT_IDS) {
+                throw new InvalidFileFormatException();
+            }
+            boolean hasIds = version != VERSION_WITHOUT_IDS;
+            long sequence = buffer.getLong();
+            long nextId = hasIds ? buffer.getLong() : 1;
+            int count = buffer.getInt();
+            // Reused to decode strings, so that only longer strings need a buffer of their own
+            byte[] scratch = new byte[1024];
+            for (int i = 0; i < count; i++) {
+                tasks.add(readTask(buffer, scratch, hasIds));
+            }
+            return new Header(sequence, nextId);
+        }
+    }
+
+    private static Task readTask(ByteBuffer buffer, byte[] scratch, boolean hasIds) {
+        char type = (char) buffer.get();
+        byte flags = buffer.get();
+        boolean isDone = (flags & DONE_FLAG) != 0;
+        long id = hasIds ? buffer.getLong() : Task.NO_ID;
+        String description = readString(buffer, scratch);
+        Task task = switch (type) {
+            case 'T' -> new Todo(description);
+            case 'D' -> new Deadline(description, readTemporal(buffer, scratch));
+            case 'E' -> new Event(description, readTemporal(buffer, scratch), readTemporal(buffer, scratch));
+            default -> throw new InvalidFileFormatException();
+        };
+        if (isDone) {
+            // Marked before it repeats, so that a repeating task is not moved on to its next occurrence
+            task.markAsDone();
+        }
+        if ((flags & RECURRING_FLAG) != 0) {
+            int occurrence = buffer.getInt();
+            try {
+                task.setRecurrence(Recurrence.fromStorageText(readString(buffer, scratch)), occurrence);
+            } catch (IllegalArgumentException e) {
+                throw new InvalidFileFormatException();
+            }
+        }
+        task.setId(id);
+        return task;
+    }
+
+    private static Temporal readTemporal(ByteBuffer buffer, byte[] scratch) {
+        int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal >= TEMPORAL_TYPES.length) {
+            throw new InvalidFileFormatException();
+        }
+        TemporalType type = TEMPORAL_TYPES[ordinal];
+        return type == TemporalType.TEXT
+                ? Temporal.ofText(readString(buffer, scratch))
+                : Temporal.ofEpochValue(type, buffer.getLong());
+    }
+
+    private static String readString(ByteBuffer buffer, byte[] scratch) {
+        int length = buffer.getInt();
+        if (length < 0 || length > buffer.remaining()) {
+            throw new InvalidFileFormatException();
+        }
+        byte[] bytes = length <= scratch.length ? scratch : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,225 @@
+package carbon.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A ChatHistory keeps every message of a chat session, while keeping only a bounded number of them in memory.
+ * <p>
+ * The most recent messages are kept in a ring buffer. When the buffer is full, the oldest message in it
+ * is spilled to a temporary file on the disk to make room for the next. Spilled messages are read back
+ * lazily, a page of consecutive messages at a time, and only the few pages most recently read are kept,
+ * so the memory used stays the same however long the session lasts.
+ * <p>
+ * The spilled messages are kept in two files: one containing the messages one after another, and an index
+ * containing the offset of each message in the first file, so that any message can be found without
+ * keeping the offsets in memory. Both files are deleted when the ChatHistory is closed.
+ * <p>
+ * A ChatHistory is not thread-safe, and is meant to be used only by the thread of the GUI.
+ */
+public class ChatHistory implements AutoCloseable {
+    private static final int DEFAULT_CAPACITY = 200;
+    private static final int PAGE_SIZE = 50;
+    private static final int MAX_CACHED_PAGES = 4;
+
+    private final ChatMessage[] recent;
+    // Pages of spilled messages that have been read back, from least to most recently used
+    private final LinkedHashMap<Integer, List<ChatMessage>> cachedPages =
+            new LinkedHashMap<>(MAX_CACHED_PAGES, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, List<ChatMessage>> eldest) {
+                    return size() > MAX_CACHED_PAGES;
+                }
+            };
+    private int size;
+    private int spilledCount;
+    private Path messagesPath;
+    private Path indexPath;
+    private RandomAccessFile messagesFile;
+    private RandomAccessFile indexFile;
+    private boolean isClosed;
+
+    /**
+     * Creates an empty ChatHistory.
+     * <p>
+     * The number of messages kept in memory is read from the system property <code>carbon.chatHistorySize</code>
+     * (by default, {@value #DEFAULT_CAPACITY}).
+     */
+    public ChatHistory() {
+        this(Integer.getInteger("carbon.chatHistorySize", DEFAULT_CAPACITY));
+    }
+
+    /**
+     * Creates an empty ChatHistory that keeps up to <code>capacity</code> of the most recent messages in memory.
+     *
+     * @param capacity Number of messages kept in memory.
+     * @throws IllegalArgumentException If <code>capacity</code> is not positive.
+     */
+    public ChatHistory(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity should be positive");
+        }
+        recent = new ChatMessage[capacity];
+    }
+
+    /**
+     * Adds a message to the end of the history, spilling the oldest message in memory to the disk if needed.
+     *
+     * @param message Message to be added.
+     * @throws IllegalStateException If the ChatHistory has been closed.
+     * @throws UncheckedIOException If a message could not be spilled to the disk.
+     */
+    public void add(ChatMessage message) {
+        if (isClosed) {
+            throw new IllegalStateException("Chat history has been closed");
+        }
+        int slot = size % recent.length;
+        if (size >= recent.length) {
+            spill(recent[slot]);
+        }
+        recent[slot] = message;
+        size++;
+    }
+
+    /**
+     * Returns the number of messages in the history, including those spilled to the disk.
+     *
+     * @return Number of messages.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a message, reading it (and the rest of its page) from the disk if it has been spilled.
+     *
+     * @param index Index of the message, starting from 0 for the oldest message.
+     * @return The message.
+     * @throws IndexOutOfBoundsException If there is no message with that index.
+     * @throws UncheckedIOException If the message could not be read from the disk.
+     */
+    public ChatMessage get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        if (index >= spilledCount) {
+            return recent[index % recent.length];
+        }
+        int page = index / PAGE_SIZE;
+        List<ChatMessage> messages = cachedPages.get(page);
+        if (messages == null) {
+            messages = readPage(page);
+            // Only a full page is cached, as a partial page grows as more messages are spilled
+            if (messages.size() == PAGE_SIZE) {
+                cachedPages.put(page, messages);
+            }
+        }
+        return messages.get(index % PAGE_SIZE);
+    }
+
+    /**
+     * Returns the number of messages that are kept in memory, which is bounded by the capacity
+     * and the size of the page cache.
+     *
+     * @return Number of messages in memory.
+     */
+    int getCachedCount() {
+        return Math.min(size, recent.length) + cachedPages.values().stream().mapToInt(List::size).sum();
+    }
+
+    private void spill(ChatMessage message) {
+        try {
+            if (messagesFile == null) {
+                messagesPath = Files.createTempFile("carbon-chat", ".bin");
+                indexPath = Files.createTempFile("carbon-chat", ".idx");
+                messagesFile = new RandomAccessFile(messagesPath.toFile(), "rw");
+                indexFile = new RandomAccessFile(indexPath.toFile(), "rw");
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeBoolean(message.isUser());
+            out.writeUTF(message.command());
+            byte[] text = message.text().getBytes(StandardCharsets.UTF_8);
+            out.writeInt(text.length);
+            out.write(text);
+
+            long offset = messagesFile.length();
+            messagesFile.seek(offset);
+            messagesFile.write(bytes.toByteArray());
+            indexFile.seek((long) spilledCount * Long.BYTES);
+            indexFile.writeLong(offset);
+            spilledCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads the spilled messages of a page with a single read, using the offsets of its first message
+     * and of the message after its last.
+     */
+    private List<ChatMessage> readPage(int page) {
+        int first = page * PAGE_SIZE;
+        int end = Math.min(first + PAGE_SIZE, spilledCount);
+        try {
+            long start = readOffset(first);
+            long stop = end < spilledCount ? readOffset(end) : messagesFile.length();
+            byte[] bytes = new byte[Math.toIntExact(stop - start)];
+            messagesFile.seek(start);
+            messagesFile.readFully(bytes);
+
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            List<ChatMessage> messages = new ArrayList<>(end - first);
+            for (int i = first; i < end; i++) {
+                boolean isUser = in.readBoolean();
+                String command = in.readUTF();
+                byte[] text = new byte[in.readInt()];
+                in.readFully(text);
+                messages.add(new ChatMessage(isUser, command, new String(text, StandardCharsets.UTF_8)));
+            }
+            return messages;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readOffset(int index) throws IOException {
+        indexFile.seek((long) index * Long.BYTES);
+        return indexFile.readLong();
+    }
+
+    /**
+     * Deletes the spilled messages from the disk. No more messages can be added afterwards.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+        isClosed = true;
+        cachedPages.clear();
+        if (messagesFile == null) {
+            return;
+        }
+        try {
+            messagesFile.close();
+            indexFile.close();
+            Files.deleteIfExists(messagesPath);
+            Files.deleteIfExists(indexPath);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
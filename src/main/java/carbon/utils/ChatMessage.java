@@ -0,0 +1,32 @@
+package carbon.utils;
+
+/**
+ * A ChatMessage is a single message in the chat history of the GUI.
+ *
+ * @param isUser Whether the message was entered by the user, rather than being a reply from Carbon.
+ * @param command Command that a reply from Carbon was a reply to (see {@link Response#command()}),
+ *     or "" for a message from the user.
+ * @param text Text of the message.
+ */
+public record ChatMessage(boolean isUser, String command, String text) {
+    /**
+     * Returns a message entered by the user.
+     *
+     * @param text Text of the message.
+     * @return The ChatMessage.
+     */
+    public static ChatMessage fromUser(String text) {
+        return new ChatMessage(true, "", text);
+    }
+
+    /**
+     * Returns a message from Carbon.
+     *
+     * @param command Command that the message is a reply to, or another type of message such as "reminder".
+     * @param text Text of the message.
+     * @return The ChatMessage.
+     */
+    public static ChatMessage fromCarbon(String command, String text) {
+        return new ChatMessage(false, command, text);
+    }
+}
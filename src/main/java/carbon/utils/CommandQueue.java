@@ -0,0 +1,155 @@
+package carbon.utils;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * A CommandQueue processes commands on a background thread, one at a time, in the order in which
+ * they were submitted.
+ * <p>
+ * This keeps slow commands (such as sorting a long list, or rewriting the data file) from holding up
+ * the thread that submits them, such as the JavaFX application thread. The response to each command
+ * is passed to a callback on the background thread, so a GUI should post it back to its own thread.
+ * <p>
+ * Other work that commands depend on, such as loading the tasks, can be queued before them with
+ * {@link #execute(Runnable)}, so that the commands are held until it is done.
+ * <p>
+ * An exception thrown by a command or other work is passed to an error handler, and the queue carries on.
+ * <p>
+ * The queue is busy from when a command is submitted to when the responses to every submitted command
+ * have been passed on. A listener is called whenever this may have changed, and should check
+ * {@link #isBusy()} on its own thread, as calls from different threads may arrive out of order.
+ */
+public class CommandQueue implements AutoCloseable {
+    private static final String UNEXPECTED_ERROR_MESSAGE = "Oops! Something went wrong with that command :(";
+
+    private final Function<String, Response> responder;
+    private final Runnable busyListener;
+    private final Consumer<RuntimeException> errorHandler;
+    private final ExecutorService executor;
+    // Commands submitted whose responses have not been passed on yet
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    /**
+     * Creates a CommandQueue that processes commands with <code>responder</code>.
+     *
+     * @param responder Returns the response to a command, such as {@link Ui#respond(String)}.
+     * @param busyListener Called when the queue may have become busy or idle.
+     * @param errorHandler Receives every exception thrown by <code>responder</code> or by work queued with
+     *     {@link #execute(Runnable)}, on the background thread.
+     */
+    public CommandQueue(Function<String, Response> responder, Runnable busyListener,
+            Consumer<RuntimeException> errorHandler) {
+        this.responder = responder;
+        this.busyListener = busyListener;
+        this.errorHandler = errorHandler;
+        executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "carbon-commands");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues a command, after every command submitted before it.
+     *
+     * @param input User input.
+     * @param callback Receives the response to the command, on the background thread.
+     * @throws IllegalStateException If the queue has been closed.
+     */
+    public void submit(String input, Consumer<Response> callback) {
+        enqueue(() -> process(input, callback));
+    }
+
+    /**
+     * Queues a task to be run on the background thread, after every command submitted before it
+     * and before every command submitted after it. The queue is busy until the task has been run.
+     *
+     * @param task Task to be run.
+     * @throws IllegalStateException If the queue has been closed.
+     */
+    public void execute(Runnable task) {
+        enqueue(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                errorHandler.accept(e);
+            } finally {
+                finish();
+            }
+        });
+    }
+
+    /**
+     * Queues work that calls {@link #finish()} once it is done, keeping the queue busy until then.
+     */
+    private void enqueue(Runnable work) {
+        if (pendingCount.getAndIncrement() == 0) {
+            busyListener.run();
+        }
+        try {
+            executor.execute(work);
+        } catch (RejectedExecutionException e) {
+            finish();
+            throw new IllegalStateException("Nothing more can be queued", e);
+        }
+    }
+
+    private void process(String input, Consumer<Response> callback) {
+        Response response;
+        try {
+            response = responder.apply(input);
+        } catch (RuntimeException e) {
+            // Expected errors are replied to by the responder, so this is a bug, but the queue should carry on
+            errorHandler.accept(e);
+            response = new Response("error", UNEXPECTED_ERROR_MESSAGE);
+        }
+        try {
+            callback.accept(response);
+        } finally {
+            finish();
+        }
+    }
+
+    private void finish() {
+        if (pendingCount.decrementAndGet() == 0) {
+            busyListener.run();
+        }
+    }
+
+    /**
+     * Returns <code>true</code> if any command submitted has not been responded to yet.
+     *
+     * @return Whether the queue is busy.
+     */
+    public boolean isBusy() {
+        return pendingCount.get() > 0;
+    }
+
+    /**
+     * Stops accepting commands, and waits for every command already submitted to be processed.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        boolean isInterrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                // Keep waiting, so that no command is lost, and restore the interrupt afterwards
+                isInterrupted = true;
+            }
+        }
+        if (isInterrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
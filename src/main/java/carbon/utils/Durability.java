@@ -0,0 +1,36 @@
+package carbon.utils;
+
+import java.util.Locale;
+
+/**
+ * A Durability is an enum that is created to work with Storage.
+ * It represents how soon changes are forced onto the disk:
+ * <ul>
+ *     <li>Sync: every batch of changes is forced onto the disk as soon as it is written</li>
+ *     <li>Group: changes are gathered for a short period, then forced onto the disk together</li>
+ *     <li>Buffered: changes are handed to the operating system, which decides when to write them</li>
+ * </ul>
+ */
+public enum Durability {
+    SYNC,
+    GROUP,
+    BUFFERED;
+
+    /**
+     * Returns the Durability with the name <code>name</code>, ignoring case,
+     * or {@link #GROUP} if there is none (such as when <code>name</code> is <code>null</code> or misspelt).
+     *
+     * @param name Name of the Durability, such as "sync".
+     * @return Durability with that name, or the default.
+     */
+    static Durability fromName(String name) {
+        if (name == null) {
+            return GROUP;
+        }
+        try {
+            return valueOf(name.strip().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return GROUP;
+        }
+    }
+}
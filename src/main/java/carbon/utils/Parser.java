@@ -1,16 +1,36 @@
 package carbon.utils;
 
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import carbon.exceptions.InvalidArgumentException;
 import carbon.task.Deadline;
 import carbon.task.Event;
+import carbon.task.Recurrence;
+import carbon.task.Task;
+import carbon.task.Temporal;
+import carbon.task.TemporalType;
 
 /**
  * Parser contains static methods that manage the parsing of user input.
  */
 public class Parser {
+    // Matches user input ending with "/page {N}", where N contains at least one non-whitespace character
+    private static final Pattern PAGE_PATTERN = Pattern.compile("^(.*?)\\s*/page\\s+(\\S+)\\s*$");
+    // Matches a task number "{A}", or a range of task numbers "{A}-{B}"
+    private static final Pattern RANGE_PATTERN = Pattern.compile("^\\s*(\\d+)\\s*(?:-\\s*(\\d+)\\s*)?$");
+    // Matches a date/time followed by "/every {R}", where R contains at least one non-whitespace character
+    private static final Pattern EVERY_PATTERN = Pattern.compile("^(.*?)\\s+/every\\s+(\\S.*?)\\s*$");
+    // Matches a recurrence rule "[{N}] {unit} until {date}", such as "2 weeks until 2027-01-01"
+    private static final Pattern RECURRENCE_PATTERN = Pattern.compile(
+            "^(?:(\\d{1,4})\\s+)?(day|week|month|year)s?\\s+until\\s+(\\S.*)$", Pattern.CASE_INSENSITIVE);
+    // Matches a period of time "{N} {unit}", such as "3 days" or "2h"
+    private static final Pattern WINDOW_PATTERN = Pattern.compile(
+            "^\\s*(\\d{1,6})\\s*(m|mins?|minutes?|h|hrs?|hours?|d|days?|w|weeks?)\\s*$", Pattern.CASE_INSENSITIVE);
+
     /**
      * Parses user input regarding a deadline into a Deadline.
      * <p>
@@ -19,6 +39,9 @@ public class Parser {
      * <p>
      * For example, if the user inputs "deadline assignment /by 1pm",
      * <code>text</code> would be "assignment /by 1pm".
+     * <p>
+     * The Deadline repeats if the due date/time is followed by a recurrence rule, as described in
+     * {@link #parseRecurrence(Task, String)}. "/every" in the description is part of the description.
      *
      * @param text Details of the Deadline.
      * @return The Deadline object.
@@ -31,7 +54,13 @@ public class Parser {
             throw new InvalidArgumentException(
                     "Deadline commands should be formatted as \"deadline [description] /by [due date/time]\"");
         }
-        return new Deadline(matcher.group(1), matcher.group(2));
+        Matcher every = EVERY_PATTERN.matcher(matcher.group(2));
+        boolean isRecurring = every.find();
+        Deadline deadline = new Deadline(matcher.group(1), isRecurring ? every.group(1) : matcher.group(2));
+        if (isRecurring) {
+            parseRecurrence(deadline, every.group(2));
+        }
+        return deadline;
     }
 
     /**
@@ -42,6 +71,9 @@ public class Parser {
      * <p>
      * For example, if the user inputs "event meeting /from 4pm /to 5pm",
      * <code>text</code> would be "meeting /from 4pm /to 5pm".
+     * <p>
+     * The Event repeats if the end date/time is followed by a recurrence rule, as described in
+     * {@link #parseRecurrence(Task, String)}. "/every" in the description is part of the description.
      *
      * @param text Details of the Event.
      * @return The Event object.
@@ -55,6 +87,219 @@ public class Parser {
             throw new InvalidArgumentException(
                     "Event commands should be formatted as \"event [description] /from [start] /to [end]\"");
         }
-        return new Event(matcher.group(1), matcher.group(2), matcher.group(3));
+        Matcher every = EVERY_PATTERN.matcher(matcher.group(3));
+        boolean isRecurring = every.find();
+        Event event = new Event(matcher.group(1), matcher.group(2), isRecurring ? every.group(1) : matcher.group(3));
+        if (isRecurring) {
+            parseRecurrence(event, every.group(2));
+        }
+        return event;
+    }
+
+    /**
+     * Parses a recurrence rule, and makes the task repeat by it.
+     * <p>
+     * The rule <code>text</code> is the user input after "/every", such as "week until 2027-01-01" or
+     * "2 months until 2026-12-31 18:00". The task repeats every so many days, weeks, months or years,
+     * from its own date/time up to and including the date/time after "until".
+     *
+     * @param task Deadline or Event, whose date/time is that of its first occurrence.
+     * @param text Recurrence rule.
+     * @throws InvalidArgumentException If the rule is not valid, or the task has no date.
+     */
+    public static void parseRecurrence(Task task, String text) {
+        Matcher matcher = RECURRENCE_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            throw new InvalidArgumentException("Repeating tasks should be formatted as "
+                    + "\"/every [number] [day/week/month/year] until [date/time]\"");
+        }
+        TemporalType type = task.toDateTime().getType();
+        if (type != TemporalType.DATE && type != TemporalType.DATETIME) {
+            throw new InvalidArgumentException("Only a task with a date can repeat");
+        }
+        Temporal until = Temporal.parse(matcher.group(3));
+        if (until.getType() != TemporalType.DATE && until.getType() != TemporalType.DATETIME) {
+            throw new InvalidArgumentException(String.format("I couldn't understand the date \"%s\"", until));
+        }
+        int interval = matcher.group(1) == null ? 1 : Integer.parseInt(matcher.group(1));
+        if (interval == 0) {
+            throw new InvalidArgumentException("A task can't repeat every 0 " + matcher.group(2) + "s");
+        }
+        ChronoUnit unit = switch (Character.toLowerCase(matcher.group(2).charAt(0))) {
+            case 'd' -> ChronoUnit.DAYS;
+            case 'w' -> ChronoUnit.WEEKS;
+            case 'm' -> ChronoUnit.MONTHS;
+            default -> ChronoUnit.YEARS;
+        };
+        Recurrence recurrence = new Recurrence(unit, interval, until);
+        if (!recurrence.includes(task.toDateTime(), 0)) {
+            throw new InvalidArgumentException("The series should end after its first occurrence");
+        }
+        task.setRecurrence(recurrence, 0);
+    }
+
+    /**
+     * Parses user input regarding a period into its start and end date/time.
+     * <p>
+     * The input <code>text</code> is the user input to be parsed into a period
+     * (excluding the word "between").
+     * <p>
+     * For example, if the user inputs "between 2024-07-01 /and 2024-07-07",
+     * <code>text</code> would be "2024-07-01 /and 2024-07-07".
+     *
+     * @param text Details of the period.
+     * @return Array containing the start and end of the period.
+     */
+    public static Temporal[] parsePeriod(String text) {
+        // Regex matches a String of the form "{A} /and {B}", where A and B each contain at least
+        // one non-whitespace character
+        Matcher matcher = Pattern.compile("^\\s*(\\S.*?)\\s+/and\\s+(\\S.*?)\\s*$").matcher(text);
+        if (!matcher.find()) {
+            throw new InvalidArgumentException(
+                    "Between commands should be formatted as \"between [date/time] /and [date/time]\"");
+        }
+        Temporal[] period = {Temporal.parse(matcher.group(1)), Temporal.parse(matcher.group(2))};
+        for (Temporal temporal : period) {
+            if (temporal.getType() == TemporalType.TEXT) {
+                throw new InvalidArgumentException(String.format("I couldn't understand the date/time \"%s\"",
+                        temporal));
+            }
+        }
+        return period;
+    }
+
+    /**
+     * Parses user input specifying a period of time, such as "30 minutes", "2h", "3 days" or "1 week".
+     *
+     * @param text Number followed by a unit of time.
+     * @return The period of time.
+     * @throws InvalidArgumentException If the input is not a period of time.
+     */
+    public static Duration parseWindow(String text) {
+        Matcher matcher = WINDOW_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            throw new InvalidArgumentException(
+                    "I expected a period of time after \"due\", such as \"2 hours\" or \"3 days\"");
+        }
+        ChronoUnit unit = switch (Character.toLowerCase(matcher.group(2).charAt(0))) {
+            case 'm' -> ChronoUnit.MINUTES;
+            case 'h' -> ChronoUnit.HOURS;
+            case 'd' -> ChronoUnit.DAYS;
+            default -> ChronoUnit.WEEKS;
+        };
+        return unit.getDuration().multipliedBy(Long.parseLong(matcher.group(1)));
+    }
+
+    /**
+     * Returns the page number at the end of user input, specified as "/page [number]".
+     * <p>
+     * For example, if the user inputs "find book /page 2", the page number of "book /page 2" is 2.
+     *
+     * @param text User input that may end with a page number.
+     * @return The page number, or 1 if it is not specified.
+     */
+    public static int parsePageNumber(String text) {
+        Matcher matcher = PAGE_PATTERN.matcher(text);
+        if (!matcher.find()) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(matcher.group(2));
+        } catch (NumberFormatException e) {
+            throw new InvalidArgumentException("I expected a single integer after \"/page\"");
+        }
+    }
+
+    /**
+     * Returns user input without the page number at its end, if there is one.
+     *
+     * @param text User input that may end with a page number.
+     * @return User input without the page number.
+     * @see #parsePageNumber(String)
+     */
+    public static String removePageNumber(String text) {
+        Matcher matcher = PAGE_PATTERN.matcher(text);
+        return matcher.find() ? matcher.group(1).trim() : text;
+    }
+
+    /**
+     * Returns <code>true</code> if user input refers to a single task by its number, such as "3".
+     *
+     * @param text User input.
+     * @return Whether the input is a single integer.
+     */
+    public static boolean isSingleIndex(String text) {
+        return text.matches("-?\\d+");
+    }
+
+    /**
+     * Returns <code>true</code> if user input refers to a single task by its id, such as "#12".
+     *
+     * @param text User input.
+     * @return Whether the input is "#" followed by an integer.
+     */
+    public static boolean isTaskId(String text) {
+        return text.matches("#\\d+");
+    }
+
+    /**
+     * Parses user input that refers to a task by its id, such as "#12".
+     *
+     * @param text User input, for which {@link #isTaskId(String)} returns <code>true</code>.
+     * @return Id of the task.
+     * @throws NumberFormatException If the id is too large.
+     */
+    public static long parseTaskId(String text) {
+        return Long.parseLong(text.substring(1));
+    }
+
+    /**
+     * Parses user input referring to several tasks into their indices.
+     * <p>
+     * The input <code>text</code> is either "all", or a comma-separated list of task numbers
+     * and ranges of task numbers (both ends inclusive), such as "3,7,10-20".
+     * Task numbers start from 1, while the indices returned start from 0.
+     *
+     * @param text User input referring to tasks.
+     * @param size Number of tasks in the TaskList.
+     * @param command Command that the input was given to, used in error messages.
+     * @return Indices of the tasks.
+     * @throws IndexOutOfBoundsException If any task number is out of bounds.
+     */
+    public static BitSet parseIndices(String text, int size, String command) {
+        BitSet indices = new BitSet(size);
+        if (text.trim().equalsIgnoreCase("all")) {
+            if (size == 0) {
+                throw new IndexOutOfBoundsException();
+            }
+            indices.set(0, size);
+            return indices;
+        }
+
+        for (String range : text.split(",")) {
+            Matcher matcher = RANGE_PATTERN.matcher(range);
+            int start;
+            int end;
+            try {
+                if (!matcher.find()) {
+                    throw new NumberFormatException();
+                }
+                start = Integer.parseInt(matcher.group(1));
+                end = matcher.group(2) == null ? start : Integer.parseInt(matcher.group(2));
+            } catch (NumberFormatException e) {
+                throw new InvalidArgumentException(String.format(
+                        "I expected task numbers (such as \"3\", \"1-5\" or \"3,7,10-20\") or \"all\" after \"%s\"",
+                        command));
+            }
+            if (start > end) {
+                throw new InvalidArgumentException(
+                        String.format("The range \"%s\" should start before it ends", range.trim()));
+            }
+            if (start < 1 || end > size) {
+                throw new IndexOutOfBoundsException();
+            }
+            indices.set(start - 1, end);
+        }
+        return indices;
     }
 }
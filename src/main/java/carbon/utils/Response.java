@@ -0,0 +1,11 @@
+package carbon.utils;
+
+/**
+ * A Response is Carbon's reply to a message, along with the command it was a reply to.
+ *
+ * @param command Command in lowercase (the first word of the message), or "error" if the message
+ *     triggered an error.
+ * @param text Text of the reply.
+ */
+public record Response(String command, String text) {
+}
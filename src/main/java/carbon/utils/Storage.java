@@ -1,84 +1,660 @@
 package carbon.utils;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.DateTimeException;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
 
 import carbon.exceptions.InvalidFileFormatException;
 import carbon.task.Deadline;
 import carbon.task.Event;
+import carbon.task.Recurrence;
 import carbon.task.Task;
 import carbon.task.TaskList;
+import carbon.task.Temporal;
 import carbon.task.Todo;
 
 /**
- * Storage contains static methods that manage the storage of the TaskList.
+ * Storage manages the storage of a TaskList.
+ * <p>
+ * Tasks are stored as a snapshot file together with an append-only journal. Each mutation
+ * appends one small record to the journal instead of rewriting every task. Once the journal grows
+ * past {@link #COMPACTION_THRESHOLD} records, it is folded back into a fresh snapshot.
+ * <p>
+ * Records and snapshots are written behind the caller's back by a dedicated writer thread, so
+ * callers never wait on the disk. The writer coalesces everything queued since its last write into
+ * a single flush, and drops any records already covered by a queued snapshot. How soon a flush is
+ * forced onto the disk is determined by the {@link Durability}. Use {@link #flush()} to wait for all
+ * queued changes to be written.
+ * <p>
+ * Records of changes to several tasks at once store the indices of the tasks as ranges
+ * (e.g. "0-4,7"), so that a batch of changes is a single record.
+ * <p>
+ * Tasks that are archived are appended to a separate archive file in text format, which is
+ * only read when the archive is viewed, so loading the TaskList does not parse them.
+ * <p>
+ * Each task's id is saved in the snapshot and in the record of the task being added, and the snapshot
+ * also saves the next id to be given, so that ids stay the same across restarts and are never reused.
+ * <p>
+ * Every journal record is tagged with a sequence number, and the snapshot header stores the
+ * sequence number of the last record it contains, so records are never applied twice even if the
+ * program stops halfway through a compaction.
  */
 public class Storage {
-    private static final String TASKS_FILE_PATH = "data/user/tasks.txt";
+    private static final String DEFAULT_FILE_PATH = "data/user/tasks.bin";
+    private static final String LEGACY_FILE_EXTENSION = ".txt";
+    private static final String ARCHIVE_FILE_EXTENSION = ".archive.txt";
+    private static final int COMPACTION_THRESHOLD = 1000;
+    private static final long DEFAULT_GROUP_COMMIT_MILLIS = 50;
+    private static final String SNAPSHOT_HEADER = "#";
+
+    private static final String ADD = "ADD";
+    private static final String MARK = "MARK";
+    private static final String UNMARK = "UNMARK";
+    private static final String DELETE = "DELETE";
+    private static final String DELETE_MARKED = "DELETE_MARKED";
+
+    // Queued to stop the writer thread once everything before it has been written
+    private static final Object STOP = new Object();
+
+    private final File dataFile;
+    private final File journalFile;
+    private final File legacyFile;
+    private final File archiveFile;
+    private final Durability durability;
+    private final long groupCommitMillis;
+    private final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+
+    // Only accessed by the caller's thread
+    private long sequence;
+    private int journalSize;
+
+    // Only accessed by the writer thread
+    private FileOutputStream journalStream;
+    private Writer journalWriter;
+
+    private volatile IOException failure;
+
+    /**
+     * A request for all tasks to be written into a fresh snapshot.
+     *
+     * @param body Tasks encoded at the time of the request.
+     * @param sequence Sequence number of the last record the snapshot contains.
+     */
+    private record Snapshot(byte[] body, long sequence) {
+    }
+
+    /**
+     * A request for tasks to be appended to the archive file.
+     *
+     * @param text Storage text of the tasks.
+     */
+    private record ArchivedTasks(String text) {
+    }
+
+    /**
+     * Creates a Storage backed by the default data file.
+     * <p>
+     * The durability may be chosen with the <code>carbon.durability</code> system property
+     * (<code>sync</code>, <code>group</code> or <code>buffered</code>; any other value means <code>group</code>),
+     * and the group commit period with the <code>carbon.groupCommitMillis</code> system property.
+     */
+    public Storage() {
+        this(DEFAULT_FILE_PATH, Durability.fromName(System.getProperty("carbon.durability")),
+                Long.getLong("carbon.groupCommitMillis", DEFAULT_GROUP_COMMIT_MILLIS));
+    }
+
+    /**
+     * Creates a Storage backed by the specified data file, using group commits.
+     * The journal is kept alongside the data file.
+     *
+     * @param filePath Path of the data file.
+     */
+    public Storage(String filePath) {
+        this(filePath, Durability.GROUP, DEFAULT_GROUP_COMMIT_MILLIS);
+    }
+
+    /**
+     * Creates a Storage backed by the specified data file.
+     * The journal is kept alongside the data file.
+     * <p>
+     * If the data file does not exist yet, but a text file of the same name (with the extension
+     * <code>.txt</code>) does, the tasks are migrated from the text file when loaded.
+     * Archived tasks are kept in a file of the same name with the extension <code>.archive.txt</code>.
+     *
+     * @param filePath Path of the data file.
+     * @param durability How soon changes are forced onto the disk.
+     * @param groupCommitMillis How long changes are gathered for, if <code>durability</code> is
+     *         {@link Durability#GROUP}.
+     */
+    public Storage(String filePath, Durability durability, long groupCommitMillis) {
+        dataFile = new File(filePath);
+        journalFile = new File(filePath + ".journal");
+        // Replaces the extension of the file name, if any
+        legacyFile = new File(filePath.replaceFirst("(\\.[^./\\\\]*)?$", LEGACY_FILE_EXTENSION));
+        archiveFile = new File(filePath.replaceFirst("(\\.[^./\\\\]*)?$", ARCHIVE_FILE_EXTENSION));
+        this.durability = durability;
+        this.groupCommitMillis = groupCommitMillis;
+        writer = new Thread(this::runWriter, "carbon-storage");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Appends a record of a task being added to the end of the TaskList.
+     *
+     * @param task Task that was added.
+     */
+    public void appendAdd(Task task) {
+        appendRecord(ADD + " " + task.getId() + "\n" + task.getStorageText());
+    }
+
+    /**
+     * Appends a record of a task being marked as done.
+     *
+     * @param index Index of the task in the TaskList.
+     */
+    public void appendMark(int index) {
+        appendRecord(MARK + " " + index);
+    }
+
+    /**
+     * Appends a record of a task being marked as not done.
+     *
+     * @param index Index of the task in the TaskList.
+     */
+    public void appendUnmark(int index) {
+        appendRecord(UNMARK + " " + index);
+    }
+
+    /**
+     * Appends a record of a task being deleted.
+     *
+     * @param index Index of the task in the TaskList.
+     */
+    public void appendDelete(int index) {
+        appendRecord(DELETE + " " + index);
+    }
+
+    /**
+     * Appends a record of several tasks being marked as done.
+     *
+     * @param indices Indices of the tasks in the TaskList.
+     */
+    public void appendMark(BitSet indices) {
+        appendRecord(MARK + " " + formatRanges(indices));
+    }
+
+    /**
+     * Appends a record of several tasks being marked as not done.
+     *
+     * @param indices Indices of the tasks in the TaskList.
+     */
+    public void appendUnmark(BitSet indices) {
+        appendRecord(UNMARK + " " + formatRanges(indices));
+    }
+
+    /**
+     * Appends a record of several tasks being deleted at once.
+     *
+     * @param indices Indices of the tasks in the TaskList, before any of them were deleted.
+     */
+    public void appendDelete(BitSet indices) {
+        appendRecord(DELETE + " " + formatRanges(indices));
+    }
+
+    /**
+     * Returns the indices as a comma-separated list of ranges, such as "0-4,7".
+     */
+    private static String formatRanges(BitSet indices) {
+        StringBuilder ranges = new StringBuilder();
+        for (int start = indices.nextSetBit(0); start >= 0; start = indices.nextSetBit(start)) {
+            int end = indices.nextClearBit(start) - 1;
+            ranges.append(ranges.isEmpty() ? "" : ",").append(start);
+            if (end > start) {
+                ranges.append('-').append(end);
+            }
+            start = end + 1;
+        }
+        return ranges.toString();
+    }
+
+    private static BitSet parseRanges(String ranges) {
+        BitSet indices = new BitSet();
+        for (String range : ranges.split(",")) {
+            String[] bounds = range.split("-", 2);
+            int start = Integer.parseInt(bounds[0]);
+            int end = bounds.length > 1 ? Integer.parseInt(bounds[1]) : start;
+            if (start < 0 || end < start) {
+                throw new InvalidFileFormatException();
+            }
+            indices.set(start, end + 1);
+        }
+        return indices;
+    }
+
+    /**
+     * Appends a record of all marked tasks being deleted.
+     */
+    public void appendDeleteMarked() {
+        appendRecord(DELETE_MARKED);
+    }
+
+    /**
+     * Appends tasks to the archive file.
+     * <p>
+     * The tasks are written to the archive before any change recorded after this call,
+     * so removing the tasks from the TaskList afterwards never loses them.
+     *
+     * @param tasks Tasks to be archived.
+     */
+    public void appendArchive(List<Task> tasks) {
+        checkFailure();
+        StringBuilder text = new StringBuilder();
+        for (Task task : tasks) {
+            text.append(task.getStorageText()).append('\n');
+        }
+        queue.add(new ArchivedTasks(text.toString()));
+    }
+
+    /**
+     * Reads every task in the archive file, once all pending changes have been written.
+     * <p>
+     * If the archive ends in an incomplete task, the tasks before it are returned.
+     *
+     * @return Archived tasks, in the order they were archived.
+     */
+    public List<Task> loadArchive() {
+        flush();
+        List<Task> tasks = new ArrayList<>();
+        if (!archiveFile.exists()) {
+            return tasks;
+        }
+        try (Scanner scanner = new Scanner(archiveFile)) {
+            while (scanner.hasNextLine()) {
+                Task task = nextTask(scanner);
+                if (task == null) {
+                    break;
+                }
+                tasks.add(task);
+            }
+        } catch (FileNotFoundException e) {
+            throw new RuntimeException(e);
+        } catch (IndexOutOfBoundsException | NoSuchElementException | DateTimeException
+                 | InvalidFileFormatException e) {
+            // Incomplete final task, keep the tasks before it
+        }
+        return tasks;
+    }
+
+    private void appendRecord(String record) {
+        checkFailure();
+        queue.add(++sequence + " " + record + "\n");
+        journalSize++;
+    }
+
+    /**
+     * Returns <code>true</code> if the journal has grown large enough to be compacted.
+     *
+     * @return Whether the journal should be compacted.
+     */
+    public boolean isCompactionDue() {
+        return journalSize >= COMPACTION_THRESHOLD;
+    }
 
     /**
-     * Writes the tasks into storage.
+     * Writes all tasks into a fresh snapshot, replacing the journal.
+     * <p>
+     * The tasks are captured on the calling thread, while the snapshot itself is written by the
+     * writer thread. Used for changes that are not journaled (such as sorting), and to fold the
+     * journal once {@link #isCompactionDue()} returns <code>true</code>.
      *
      * @param tasks The list of tasks.
+     * @param nextId Id to be given to the next task added, so that ids of deleted tasks are not reused.
+     */
+    public void updateDataFile(List<Task> tasks, long nextId) {
+        checkFailure();
+        queue.add(new Snapshot(BinaryTaskFile.encode(tasks, nextId), sequence));
+        journalSize = 0;
+    }
+
+    /**
+     * Blocks until every change made so far has been written according to the durability.
+     *
+     * @throws IllegalStateException If the Storage has been closed.
+     */
+    public void flush() {
+        if (!writer.isAlive()) {
+            throw new IllegalStateException("Storage has been closed");
+        }
+        CompletableFuture<Void> barrier = new CompletableFuture<>();
+        queue.add(barrier);
+        try {
+            barrier.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    /**
+     * Writes every pending change, then stops the writer thread.
+     * The Storage should not be used afterwards.
      */
-    public static void updateDataFile(ArrayList<Task> tasks) {
-        try (FileWriter writer = new FileWriter(TASKS_FILE_PATH)) {
-            for (Task task : tasks) {
-                writer.write(task.getStorageText() + "\n");
+    public void close() {
+        if (!writer.isAlive()) {
+            return;
+        }
+        flush();
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new RuntimeException(failure);
+        }
+    }
+
+    private void runWriter() {
+        List<Object> batch = new ArrayList<>();
+        boolean isRunning = true;
+        while (isRunning) {
+            try {
+                batch.add(queue.take());
+                if (durability == Durability.GROUP && batch.get(0) instanceof String) {
+                    // Give the rest of the burst a chance to join this commit
+                    Thread.sleep(groupCommitMillis);
+                }
+            } catch (InterruptedException e) {
+                isRunning = false;
+            }
+            queue.drainTo(batch);
+            isRunning &= !batch.contains(STOP);
+            writeBatch(batch);
+            batch.clear();
+        }
+        closeJournal();
+    }
+
+    private void writeBatch(List<Object> batch) {
+        try {
+            // Archived tasks go first, as records removing them may follow in the same batch
+            writeArchive(batch);
+            int start = 0;
+            for (int i = batch.size() - 1; i >= 0; i--) {
+                if (batch.get(i) instanceof Snapshot snapshot) {
+                    // Records queued before the latest snapshot are already part of it
+                    writeSnapshot(snapshot);
+                    start = i + 1;
+                    break;
+                }
+            }
+
+            boolean hasRecords = false;
+            for (Object entry : batch.subList(start, batch.size())) {
+                if (entry instanceof String record) {
+                    openJournal().write(record);
+                    hasRecords = true;
+                }
+            }
+            if (hasRecords) {
+                journalWriter.flush();
+                if (durability != Durability.BUFFERED) {
+                    journalStream.getFD().sync();
+                }
             }
         } catch (IOException e) {
-            throw new RuntimeException(e);
+            failure = e;
+        }
+
+        for (Object entry : batch) {
+            if (entry instanceof CompletableFuture<?> barrier) {
+                if (failure == null) {
+                    barrier.complete(null);
+                } else {
+                    barrier.completeExceptionally(failure);
+                }
+            }
+        }
+    }
+
+    private void writeArchive(List<Object> batch) throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (Object entry : batch) {
+            if (entry instanceof ArchivedTasks archived) {
+                text.append(archived.text());
+            }
+        }
+        if (text.isEmpty()) {
+            return;
+        }
+        try (FileOutputStream stream = new FileOutputStream(archiveFile, true)) {
+            Writer archiveWriter = new BufferedWriter(new OutputStreamWriter(stream));
+            archiveWriter.write(text.toString());
+            archiveWriter.flush();
+            if (durability != Durability.BUFFERED) {
+                stream.getFD().sync();
+            }
+        }
+    }
+
+    private void writeSnapshot(Snapshot snapshot) throws IOException {
+        File tempFile = new File(dataFile.getPath() + ".tmp");
+        try (FileOutputStream stream = new FileOutputStream(tempFile)) {
+            BinaryTaskFile.write(new BufferedOutputStream(stream), snapshot.sequence(), snapshot.body());
+            if (durability != Durability.BUFFERED) {
+                stream.getFD().sync();
+            }
+        }
+        Files.move(tempFile.toPath(), dataFile.toPath(),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Every record written so far is part of the snapshot
+        closeJournal();
+        Files.deleteIfExists(journalFile.toPath());
+    }
+
+    private Writer openJournal() throws IOException {
+        if (journalWriter == null) {
+            journalStream = new FileOutputStream(journalFile, true);
+            journalWriter = new BufferedWriter(new OutputStreamWriter(journalStream));
+        }
+        return journalWriter;
+    }
+
+    private void closeJournal() {
+        if (journalWriter == null) {
+            return;
+        }
+        try {
+            journalWriter.close();
+        } catch (IOException e) {
+            failure = e;
         }
+        journalWriter = null;
+        journalStream = null;
     }
 
     /**
      * Loads data from storage into the TaskList.
+     * <p>
+     * The snapshot is read first, then the journal is replayed on top of it.
+     * A journal that ends in an incomplete record (e.g. if the program was stopped while
+     * writing) is replayed up to the last complete record.
      *
      * @param taskList TaskList to load data into.
      * @return Message describing any abnormalities (empty if none).
      */
-    public static String loadDataFile(TaskList taskList) {
-        File dataFile = new File(TASKS_FILE_PATH);
+    public String loadDataFile(TaskList taskList) {
         if (!dataFile.getParentFile().exists() && !dataFile.getParentFile().mkdirs()) {
-            throw new RuntimeException("Unable to create data/user/ directory");
-        }
-        boolean hasFile;
-        try {
-            hasFile = !dataFile.createNewFile();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+            throw new RuntimeException("Unable to create " + dataFile.getParent() + " directory");
         }
 
-        if (!hasFile) {
+        boolean isMigrating = !dataFile.exists() && legacyFile.exists();
+        File snapshotFile = isMigrating ? legacyFile : dataFile;
+        File replayedJournalFile = isMigrating ? new File(legacyFile.getPath() + ".journal") : journalFile;
+        if (!snapshotFile.exists() && !replayedJournalFile.exists()) {
             return "";
         }
 
         String message = "";
+        List<Task> tasks = new ArrayList<>();
+        boolean isComplete;
 
+        long nextId = 1;
         try {
-            readTasks(taskList, dataFile);
-        } catch (FileNotFoundException e) {
+            long snapshotSequence = 0;
+            if (isMigrating) {
+                snapshotSequence = readTextSnapshot(tasks);
+            } else if (snapshotFile.exists()) {
+                BinaryTaskFile.Header header = BinaryTaskFile.read(dataFile, tasks);
+                snapshotSequence = header.sequence();
+                nextId = header.nextId();
+            }
+            sequence = snapshotSequence;
+            isComplete = replayJournal(tasks, replayedJournalFile, snapshotSequence);
+            if (!isComplete) {
+                message = "The last change before the program closed could not be recovered.\n";
+            }
+        } catch (IOException e) {
             throw new RuntimeException(e);
-        } catch (IndexOutOfBoundsException | NoSuchElementException | InvalidFileFormatException e) {
-            message = "The data file was corrupted. Its contents are ignored and will be reset.\n";
+        } catch (IndexOutOfBoundsException | NoSuchElementException | BufferUnderflowException
+                 | DateTimeException | InvalidFileFormatException e) {
             clearTasks(taskList);
+            return "The data file was corrupted. Its contents are ignored and will be reset.\n";
+        }
+
+        // Tasks saved before tasks had ids are given ids after every existing id, which are then saved
+        boolean hasNewIds = tasks.stream().anyMatch(task -> task.getId() == Task.NO_ID);
+        taskList.reserveIds(Math.max(nextId, tasks.stream().mapToLong(Task::getId).max().orElse(0) + 1));
+        tasks.forEach(taskList::add);
+        // An incomplete record has to be dropped before any new records are appended after it
+        if (isMigrating || hasNewIds || !isComplete || isCompactionDue()) {
+            updateDataFile(tasks, taskList.getNextId());
+            flush();
+        }
+        if (isMigrating) {
+            migrated(replayedJournalFile);
         }
         return message;
     }
 
-    private static void readTasks(TaskList taskList, File dataFile) throws FileNotFoundException {
-        Scanner scanner = new Scanner(dataFile);
-        while (scanner.hasNextLine()) {
-            Task task = nextTask(scanner);
-            if (task == null) {
-                break;
+    /**
+     * Moves the text file aside once its tasks have been written into the data file.
+     */
+    private void migrated(File legacyJournalFile) {
+        try {
+            Files.move(legacyFile.toPath(), new File(legacyFile.getPath() + ".bak").toPath(),
+                    StandardCopyOption.REPLACE_EXISTING);
+            Files.deleteIfExists(legacyJournalFile.toPath());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private long readTextSnapshot(List<Task> tasks) throws FileNotFoundException {
+        try (Scanner scanner = new Scanner(legacyFile)) {
+            long snapshotSequence = 0;
+            if (scanner.hasNext(SNAPSHOT_HEADER + "\\d+")) {
+                snapshotSequence = Long.parseLong(scanner.nextLine().substring(SNAPSHOT_HEADER.length()));
+            }
+            while (scanner.hasNextLine()) {
+                Task task = nextTask(scanner);
+                if (task == null) {
+                    break;
+                }
+                tasks.add(task);
+            }
+            return snapshotSequence;
+        }
+    }
+
+    /**
+     * Applies the records in a journal file that come after the snapshot.
+     *
+     * @return <code>false</code> if the journal ends in a record that could not be applied.
+     */
+    private boolean replayJournal(List<Task> tasks, File file, long snapshotSequence)
+            throws FileNotFoundException {
+        if (!file.exists()) {
+            return true;
+        }
+        try (Scanner scanner = new Scanner(file)) {
+            while (scanner.hasNextLine()) {
+                String[] header = scanner.nextLine().split(" ");
+                if (header[0].isEmpty()) {
+                    continue;
+                }
+                long recordSequence = Long.parseLong(header[0]);
+                Task added = header[1].equals(ADD) ? nextTask(scanner) : null;
+                if (added != null && header.length > 2) {
+                    // Records written before tasks had ids do not have one
+                    added.setId(Long.parseLong(header[2]));
+                }
+                if (recordSequence > snapshotSequence) {
+                    applyRecord(tasks, header, added);
+                    sequence = recordSequence;
+                    journalSize++;
+                }
+            }
+        } catch (IndexOutOfBoundsException | NoSuchElementException | NumberFormatException
+                 | InvalidFileFormatException e) {
+            // Incomplete final record, discard it
+            return false;
+        }
+        return true;
+    }
+
+    private static void applyRecord(List<Task> tasks, String[] header, Task added) {
+        switch (header[1]) {
+        case ADD:
+            if (added == null) {
+                throw new InvalidFileFormatException();
+            }
+            tasks.add(added);
+            break;
+        case MARK:
+            parseRanges(header[2]).stream().forEach(i -> tasks.get(i).markAsDone());
+            break;
+        case UNMARK:
+            parseRanges(header[2]).stream().forEach(i -> tasks.get(i).unmarkAsDone());
+            break;
+        case DELETE:
+            BitSet indices = parseRanges(header[2]);
+            if (indices.length() > tasks.size()) {
+                throw new IndexOutOfBoundsException(indices.length() - 1);
             }
-            taskList.add(task);
+            TaskList.removeTasks(tasks, indices);
+            break;
+        case DELETE_MARKED:
+            tasks.removeIf(Task::isDone);
+            break;
+        default:
+            throw new InvalidFileFormatException();
         }
     }
 
@@ -95,30 +671,37 @@ public class Storage {
         Task task = switch (type) {
             case 'T' -> new Todo(description);
             case 'D' -> {
-                String dueBy = scanner.nextLine().trim();
+                Temporal dueBy = Temporal.fromStorageText(scanner.nextLine().trim());
                 yield new Deadline(description, dueBy);
             }
             case 'E' -> {
-                String from = scanner.nextLine().trim();
-                String to = scanner.nextLine().trim();
+                Temporal from = Temporal.fromStorageText(scanner.nextLine().trim());
+                Temporal to = Temporal.fromStorageText(scanner.nextLine().trim());
                 yield new Event(description, from, to);
             }
             default -> throw new InvalidFileFormatException();
         };
 
         if (isDone) {
+            // Marked before it repeats, so that a repeating task is not moved on to its next occurrence
             task.markAsDone();
         }
+        // A repeating task's first line also has its current occurrence and recurrence rule
+        String[] recurrence = firstLine.trim().split(" ", 3);
+        if (recurrence.length == 3) {
+            try {
+                task.setRecurrence(Recurrence.fromStorageText(recurrence[2]), Integer.parseInt(recurrence[1]));
+            } catch (IllegalArgumentException e) {
+                throw new InvalidFileFormatException();
+            }
+        }
         return task;
     }
 
-    private static void clearTasks(TaskList taskList) {
+    private void clearTasks(TaskList taskList) {
         taskList.clear();
-        try {
-            // Clear tasks.txt contents
-            new FileWriter(TASKS_FILE_PATH).close();
-        } catch (IOException ex) {
-            throw new RuntimeException(ex);
-        }
+        // Replace the snapshot and journal contents with an empty snapshot
+        updateDataFile(List.of(), taskList.getNextId());
+        flush();
     }
 }
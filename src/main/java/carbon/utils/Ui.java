@@ -1,8 +1,16 @@
 package carbon.utils;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
 import carbon.exceptions.InvalidArgumentException;
 import carbon.exceptions.InvalidCommandException;
+import carbon.task.ConcurrentTaskList;
+import carbon.task.ReminderScheduler;
+import carbon.task.Task;
 import carbon.task.TaskList;
+import carbon.task.TaskListener;
 
 /**
  * Ui manages interactions with the user.
@@ -14,32 +22,57 @@ public class Ui {
             todo [description] - Adds a Todo task.
             deadline [description] /by [date/time] - Adds a Deadline task.
             event [description] /from [date/time] /to [date/time] - Adds an Event task.
+            deadline/event ... /every [period] until [date/time] - Repeats the task (e.g. /every 2 weeks until ...).
             list - Lists all tasks.
+            list [page] - Lists page [page] of all tasks.
+            list [by date/by type/done/undone] - Lists tasks in another order, or by status.
+            list ids - Lists all tasks with their ids.
             find [text] - Lists all tasks containing [text].
+            find [filters] - Lists tasks matching every filter (type:D, done:no, before:/after:/on:[date], text:[text]).
+            between [date/time] /and [date/time] - Lists all tasks within the period.
+            due [period] - Lists tasks not done yet that are due within [period] (e.g. 3 days), or 1 day.
+            conflicts - Lists all pairs of events that overlap.
             mark [number] - Marks task [number] as done.
             unmark [number] - Marks task [number] as not done.
             delete [number] - Deletes task [number].
+            mark/unmark/delete [numbers] - Does the same to several tasks (e.g. 1-5, 3,7,10-20 or all).
+            mark/unmark/delete #[id] - Does the same to the task with that id, which never changes.
             delete marked - Deletes all marked tasks.
+            archive marked - Moves all marked tasks into the archive.
+            archived [page] - Lists archived tasks.
             sort - Sorts tasks by their specified date/time.
             help - Displays this help message.
             bye - Quits the program.
+
+            Long lists are split into pages. Add "/page [page]" to a find or list command to see another page.
             """;
 
-    private final TaskList taskList;
-    private String mostRecentCommand;
+    private final Storage storage;
+    private final ConcurrentTaskList taskList;
     private final String welcomeMessage;
+    private ReminderScheduler reminders;
 
     /**
-     * Creates a new UI process.
+     * Creates a new UI process, with tasks saved to the default data file.
      */
     public Ui() {
-        this.taskList = new TaskList();
-        welcomeMessage = Storage.loadDataFile(taskList) + "Hello! What can I do for you?";
+        this(new Storage());
     }
 
-    private String formatError(String message) {
-        mostRecentCommand = "error";
-        return String.format("Oops! %s :(", message);
+    /**
+     * Creates a new UI process, with tasks saved to <code>storage</code>.
+     *
+     * @param storage Storage to load tasks from and save changes to.
+     */
+    public Ui(Storage storage) {
+        this.storage = storage;
+        TaskList loaded = new TaskList(storage);
+        welcomeMessage = storage.loadDataFile(loaded) + "Hello! What can I do for you?";
+        this.taskList = new ConcurrentTaskList(loaded);
+    }
+
+    private static Response formatError(String message) {
+        return new Response("error", String.format("Oops! %s :(", message));
     }
 
     /**
@@ -49,17 +82,29 @@ public class Ui {
      * @return Reply.
      */
     public String reply(String input) {
+        return respond(input).text();
+    }
+
+    /**
+     * Returns the reply to the user input, along with the command it is a reply to.
+     * A Ui keeps no state between messages apart from the tasks, so it can reply to
+     * messages from several threads at once.
+     *
+     * @param input User input.
+     * @return Reply and command.
+     */
+    public Response respond(String input) {
         String[] words = input.trim().split(" ", 2);
-        mostRecentCommand = words[0].toLowerCase();
+        String command = words[0].toLowerCase();
         String arg = words.length > 1 ? words[1].trim() : "";
 
         try {
-            return processMessage(arg);
+            return new Response(command, processMessage(command, arg));
         } catch (InvalidCommandException | InvalidArgumentException e) {
             assert !e.getMessage().isBlank() : "Exception should have a message";
             return formatError(e.getMessage());
         } catch (NumberFormatException e) {
-            return formatError(String.format("I expected a single integer after \"%s\"", mostRecentCommand));
+            return formatError(String.format("I expected a single integer after \"%s\"", command));
         } catch (IndexOutOfBoundsException e) {
             String message = taskList.isEmpty()
                     ? "You don't have any tasks!"
@@ -68,34 +113,105 @@ public class Ui {
         }
     }
 
-    private String processMessage(String arg) {
-        return switch (mostRecentCommand) {
+    private String processMessage(String command, String arg) {
+        return switch (command) {
             case "start" -> welcomeMessage;
             case "help" -> helpMessage;
-            case "bye" -> "Goodbye!";
-            case "list" -> taskList.listTasks();
+            case "bye" -> {
+                storage.flush();
+                yield "Goodbye!";
+            }
+            case "list" -> list(arg);
             case "find" -> taskList.listTasks(arg);
-            case "mark" -> taskList.markTask(Integer.parseInt(arg) - 1);
-            case "unmark" -> taskList.unmarkTask(Integer.parseInt(arg) - 1);
+            case "between" -> taskList.listTasksBetween(arg);
+            case "due" -> taskList.listDueTasks(arg);
+            case "conflicts" -> taskList.listConflicts();
+            case "mark" -> taskList.mark(arg);
+            case "unmark" -> taskList.unmark(arg);
             case "todo" -> taskList.addTodo(arg);
             case "deadline" -> taskList.addDeadline(arg);
             case "event" -> taskList.addEvent(arg);
             case "delete" -> taskList.delete(arg);
+            case "archive" -> taskList.archive(arg);
+            case "archived" -> taskList.listArchive(arg.isEmpty() ? 1 : Integer.parseInt(arg));
             case "sort" -> taskList.sortTasks();
             default -> throw new InvalidCommandException(
-                    String.format("The command \"%s\" is not recognised", mostRecentCommand));
+                    String.format("The command \"%s\" is not recognised", command));
         };
     }
 
     /**
-     * Returns the most recent command as a String in lowercase.
-     * The command is the first word of the user's message.
-     * If user's message triggered an error, "error" is returned.
-     * If no command has been entered, "start" is returned.
+     * Writes the reply to "list", with every task rather than only the first page, to <code>out</code>,
+     * one line at a time, without building the whole reply as a String.
+     *
+     * @param out Destination of the reply.
+     * @param indent Text written at the start of each line.
+     * @throws IOException If <code>out</code> could not be written to.
+     */
+    public void writeTasks(Appendable out, String indent) throws IOException {
+        taskList.writeTasks(out, indent);
+    }
+
+    private String list(String arg) {
+        if (arg.isEmpty()) {
+            return taskList.listTasks(1);
+        }
+        return Character.isDigit(arg.charAt(0))
+                ? taskList.listTasks(Integer.parseInt(arg))
+                : taskList.listTasksInView(arg);
+    }
+
+    /**
+     * Starts reminding the user of tasks shortly before they are due, until {@link #close()} is called.
+     *
+     * @param notifier Receives the text of each reminder, on a background thread.
+     * @see ReminderScheduler
+     */
+    public void startReminders(Consumer<String> notifier) {
+        if (reminders != null) {
+            throw new IllegalStateException("Reminders have already been started");
+        }
+        reminders = new ReminderScheduler(notifier);
+        taskList.addListener(reminders);
+    }
+
+    /**
+     * Starts telling a listener about every change to the tasks, after telling it about each task
+     * already in the task list.
+     *
+     * @param listener Listener to be called, on the thread making each change.
+     * @see ConcurrentTaskList#addListener(TaskListener)
+     */
+    public void addTaskListener(TaskListener listener) {
+        taskList.addListener(listener);
+    }
+
+    /**
+     * Stops telling a listener about changes to the tasks.
+     *
+     * @param listener Listener added by {@link #addTaskListener(TaskListener)}.
+     */
+    public void removeTaskListener(TaskListener listener) {
+        taskList.removeListener(listener);
+    }
+
+    /**
+     * Stops any reminders and writes any changes that have not been saved yet, then releases the storage.
+     */
+    public void close() {
+        if (reminders != null) {
+            taskList.removeListener(reminders);
+            reminders.close();
+        }
+        storage.close();
+    }
+
+    /**
+     * Returns a copy of every task, in the order in which they are numbered.
      *
-     * @return Most recent command.
+     * @return Copies of the tasks in the task list.
      */
-    public String getMostRecentCommand() {
-        return mostRecentCommand;
+    public List<Task> getTasks() {
+        return taskList.getTasks();
     }
 }
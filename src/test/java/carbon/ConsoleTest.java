@@ -0,0 +1,62 @@
+package carbon;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ConsoleTest {
+    private static final String LINE = "    ____________________________________________________________\n";
+
+    @TempDir
+    private Path tempDir;
+
+    @Test
+    public void run_commands_repliesFramed() throws IOException {
+        Carbon carbon = new Carbon(tempDir.resolve("tasks.bin").toString());
+        StringWriter out = new StringWriter();
+        String input = "todo read book\n\nmark 1\nbye\nlist\n";
+        new Console(carbon, new BufferedReader(new StringReader(input)), out).run();
+        carbon.close();
+
+        String output = out.toString();
+        assertTrue(output.contains("Hello! What can I do for you?\n" + LINE + "\n"));
+        assertTrue(output.endsWith(LINE
+                + "     Nice! Marked as done:\n"
+                + "        [T][X] read book\n"
+                + LINE + "\n"
+                + LINE
+                + "     Goodbye!\n"
+                + LINE + "\n"));
+        // Input after "bye" is ignored
+        assertEquals(4, output.split("\n\n").length);
+    }
+
+    @Test
+    public void run_list_everyTaskListed() throws IOException {
+        Carbon carbon = new Carbon(tempDir.resolve("tasks.bin").toString());
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 120; i++) {
+            input.append("todo task ").append(i).append('\n');
+        }
+        input.append("list\n");
+        StringWriter out = new StringWriter();
+        new Console(carbon, new BufferedReader(new StringReader(input.toString())), out).run();
+        carbon.close();
+
+        // Not split into pages, unlike in the GUI
+        StringBuilder expected = new StringBuilder(LINE).append("     You have 120 tasks:\n");
+        for (int i = 1; i <= 120; i++) {
+            expected.append("     ").append(i).append(". [T][ ] task ").append(i).append('\n');
+        }
+        expected.append(LINE).append('\n');
+        assertTrue(out.toString().endsWith(expected.toString()));
+    }
+}
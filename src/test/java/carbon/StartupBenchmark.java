@@ -0,0 +1,124 @@
+package carbon;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Measures the time taken for the GUI to start up from the shadow jar, from when the JVM is launched
+ * to when the window is shown, and to when the tasks have been loaded, with and without the class data
+ * sharing archive created by <code>gradlew cdsArchive</code>.
+ * <p>
+ * Each run is a new JVM, started in a folder containing the same generated tasks, with the system property
+ * <code>carbon.exitAfterStartup</code> set (see {@link Main}). The runs of each configuration are interleaved,
+ * after one run of each to warm up the file cache, and the median of each time is printed.
+ * <p>
+ * Run with <code>gradlew shadowJar cdsArchive benchmark -PbenchmarkClass=carbon.StartupBenchmark</code>.
+ * The GUI is shown, so this needs a display.
+ */
+public class StartupBenchmark {
+    private static final Path JAR = Path.of("build", "libs", "carbon.jar");
+    private static final Path ARCHIVE = Path.of("build", "libs", "carbon.jsa");
+    private static final int TASK_COUNT = 10_000;
+    private static final int RUNS = 10;
+
+    private static Path createDataFolder() throws IOException {
+        Path folder = Files.createTempDirectory("carbon-startup");
+        Carbon carbon = new Carbon(folder.resolve("data/user/tasks.bin").toString());
+        try {
+            for (int i = 0; i < TASK_COUNT; i++) {
+                carbon.respond(i % 2 == 0
+                        ? "todo task " + i
+                        : "deadline task " + i + " /by " + (i % 28 + 1) + "/3/2026 " + (i % 12 + 1) + "pm");
+            }
+        } finally {
+            carbon.close();
+        }
+        return folder;
+    }
+
+    /**
+     * Starts the GUI once, returning the milliseconds taken for the window to be shown, for the tasks
+     * to be loaded, and for the JVM to exit.
+     */
+    private static long[] measure(List<String> command, Path folder) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).directory(folder.toFile()).redirectErrorStream(true).start();
+        long shown = -1;
+        long loaded = -1;
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                if (line.equals("Window shown")) {
+                    shown = System.nanoTime() - start;
+                } else if (line.equals("Tasks loaded")) {
+                    loaded = System.nanoTime() - start;
+                } else {
+                    System.out.println(line);
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        long exited = System.nanoTime() - start;
+        if (exitCode != 0 || shown < 0 || loaded < 0) {
+            throw new IllegalStateException("Carbon did not start up normally (exit code " + exitCode + ")");
+        }
+        return new long[] {shown / 1_000_000, loaded / 1_000_000, exited / 1_000_000};
+    }
+
+    private static long median(long[] times) {
+        long[] sorted = times.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    /**
+     * Runs the benchmark, printing the median startup times of each configuration.
+     *
+     * @param args Unused.
+     * @throws IOException If the tasks could not be generated, or the JVM could not be launched.
+     * @throws InterruptedException If interrupted while waiting for a run to finish.
+     */
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (!Files.exists(JAR)) {
+            throw new IllegalStateException("Build the jar with gradlew shadowJar first");
+        }
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        String jar = JAR.toAbsolutePath().toString();
+        List<String> names = new ArrayList<>();
+        List<List<String>> commands = new ArrayList<>();
+        names.add("Default");
+        commands.add(List.of(java, "-Dcarbon.exitAfterStartup=true", "-jar", jar));
+        if (Files.exists(ARCHIVE)) {
+            names.add("AppCDS");
+            commands.add(List.of(java, "-XX:SharedArchiveFile=" + ARCHIVE.toAbsolutePath(),
+                    "-Dcarbon.exitAfterStartup=true", "-jar", jar));
+        } else {
+            System.out.println("No archive found, so only the default is measured (see gradlew cdsArchive)");
+        }
+
+        Path folder = createDataFolder();
+        for (List<String> command : commands) {
+            measure(command, folder);
+        }
+        long[][][] times = new long[commands.size()][3][RUNS];
+        for (int run = 0; run < RUNS; run++) {
+            for (int i = 0; i < commands.size(); i++) {
+                long[] result = measure(commands.get(i), folder);
+                for (int j = 0; j < result.length; j++) {
+                    times[i][j][run] = result[j];
+                }
+            }
+        }
+        for (int i = 0; i < commands.size(); i++) {
+            System.out.printf("%s: window shown in %d ms, tasks loaded in %d ms, exited in %d ms"
+                    + " (median of %d runs, %d tasks)%n", names.get(i), median(times[i][0]),
+                    median(times[i][1]), median(times[i][2]), RUNS, TASK_COUNT);
+        }
+    }
+}
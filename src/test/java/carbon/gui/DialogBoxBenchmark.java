@@ -0,0 +1,68 @@
+package carbon.gui;
+
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Supplier;
+
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+import javafx.scene.layout.HBox;
+
+/**
+ * Compares the time taken to create a {@link DialogBox} in code, and to create one by loading FXML
+ * (see {@link FxmlDialogBox}), for each message.
+ * <p>
+ * Run with <code>gradlew benchmark -PbenchmarkClass=carbon.gui.DialogBoxBenchmark</code>.
+ * The dialog boxes are created on the JavaFX application thread, so this needs a display.
+ */
+public class DialogBoxBenchmark {
+    private static final String TEXT = "Got it. I've added this task:\n   [T][ ] read book\nNow you have 5 tasks.";
+    private static final int ITERATIONS = 2_000;
+
+    private static double measure(Supplier<HBox> factory) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += factory.get().getChildren().size();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum < 0) {
+            throw new AssertionError(); // Prevents the loop from being optimised away
+        }
+        return elapsed / 1000.0 / ITERATIONS;
+    }
+
+    private static void run() {
+        Image image = new Image(Objects.requireNonNull(
+                DialogBoxBenchmark.class.getResourceAsStream("/images/carbon.png")));
+        for (int round = 1; round <= 5; round++) {
+            double fxmlTime = measure(() -> {
+                FxmlDialogBox dialogBox = new FxmlDialogBox();
+                dialogBox.setMessage(TEXT, image, false, "todo");
+                return dialogBox;
+            });
+            double codeTime = measure(() -> DialogBox.getCarbonDialog(TEXT, image, "todo"));
+            System.out.printf("Round %d: FXML %.1f us/message, code %.1f us/message (%.1fx)%n",
+                    round, fxmlTime, codeTime, fxmlTime / codeTime);
+        }
+    }
+
+    /**
+     * Runs the benchmark, printing the average time taken to create a dialog box for a message.
+     *
+     * @param args Unused.
+     * @throws InterruptedException If interrupted while waiting for the benchmark to finish.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        Platform.startup(() -> {
+            try {
+                run();
+            } finally {
+                done.countDown();
+            }
+        });
+        done.await();
+        Platform.exit();
+    }
+}
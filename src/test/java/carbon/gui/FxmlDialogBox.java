@@ -0,0 +1,94 @@
+package carbon.gui;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.geometry.Pos;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+/**
+ * A {@link DialogBox} built by loading <code>/view/DialogBox.fxml</code> (kept in the test resources),
+ * as DialogBox was before it was built in code. Used by {@link DialogBoxBenchmark} for comparison.
+ */
+class FxmlDialogBox extends HBox {
+    @FXML
+    private Label dialog;
+    @FXML
+    private ImageView displayPicture;
+
+    FxmlDialogBox() {
+        try {
+            FXMLLoader fxmlLoader = new FXMLLoader(FxmlDialogBox.class.getResource("/view/DialogBox.fxml"));
+            fxmlLoader.setController(this);
+            fxmlLoader.setRoot(this);
+            fxmlLoader.load();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Flips the dialog box such that the ImageView is on the other side of the text.
+     */
+    private void flip() {
+        ObservableList<Node> tmp = FXCollections.observableArrayList(this.getChildren());
+        Collections.reverse(tmp);
+        getChildren().setAll(tmp);
+    }
+
+    /**
+     * Replaces the contents of the dialog box, so that it can be reused for another message.
+     * A message from the user is formatted from the right, and a message from Carbon from the left.
+     *
+     * @param text Text to contain.
+     * @param img Image to contain.
+     * @param isUser Whether the message is from the user.
+     * @param command Command type of a message from Carbon.
+     */
+    void setMessage(String text, Image img, boolean isUser, String command) {
+        dialog.setText(text);
+        displayPicture.setImage(img);
+        boolean isImageOnLeft = getChildren().get(0) == displayPicture;
+        if (isImageOnLeft == isUser) {
+            flip();
+        }
+        setAlignment(isUser ? Pos.TOP_RIGHT : Pos.TOP_LEFT);
+        dialog.getStyleClass().setAll("label");
+        if (!isUser) {
+            dialog.getStyleClass().add("reply-label");
+            changeDialogStyle(command);
+        }
+    }
+
+    private void changeDialogStyle(String commandType) {
+        switch (commandType) {
+        case "todo":
+        case "deadline":
+        case "event":
+            dialog.getStyleClass().add("add-label");
+            break;
+        case "mark":
+            dialog.getStyleClass().add("marked-label");
+            break;
+        case "delete":
+            dialog.getStyleClass().add("delete-label");
+            break;
+        case "error":
+            dialog.getStyleClass().add("error-label");
+            break;
+        case "reminder":
+            dialog.getStyleClass().add("reminder-label");
+            break;
+        default:
+            // Do nothing
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package carbon.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CarbonServerTest {
+    @TempDir
+    private Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private CarbonServer server;
+
+    private void start(int maxSessions) throws IOException {
+        server = new CarbonServer(0, tempDir, maxSessions);
+        server.start();
+    }
+
+    @AfterEach
+    public void stop() {
+        if (server != null) {
+            server.stop();
+        }
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + server.getPort() + path))
+                .header(CarbonServer.CLIENT_HEADER, "test");
+    }
+
+    private String post(String user, String message) throws IOException, InterruptedException {
+        return send(request("/users/" + user + "/messages").POST(HttpRequest.BodyPublishers.ofString(message)))
+                .body();
+    }
+
+    private String getTasks(String user) throws IOException, InterruptedException {
+        return send(request("/users/" + user + "/tasks").GET()).body();
+    }
+
+    @Test
+    public void messages_twoUsers_isolated() throws IOException, InterruptedException {
+        start(4);
+        post("alice", "todo read book");
+        post("bob", "deadline return book /by 2024-07-01 13:00");
+
+        assertEquals("You have 1 task:\n1. [T][ ] read book", post("alice", "list"));
+        assertEquals("You have 1 task:\n1. [D][ ] return book (by: 1 Jul 2024 1:00pm)", post("bob", "list"));
+    }
+
+    @Test
+    public void tasks_json_success() throws IOException, InterruptedException {
+        start(4);
+        assertEquals("[]", getTasks("alice"));
+        post("alice", "todo say \"hi\"");
+        post("alice", "event book club /from 2024-07-02 /to 2024-07-03");
+        post("alice", "mark 1");
+
+        assertEquals("[\n"
+                + "{\"number\":1,\"id\":1,\"type\":\"T\",\"done\":true,\"description\":\"say \\\"hi\\\"\"},\n"
+                + "{\"number\":2,\"id\":2,\"type\":\"E\",\"done\":false,\"description\":\"book club\","
+                + "\"from\":\"DATE:2024-07-02\",\"to\":\"DATE:2024-07-03\"}\n"
+                + "]", getTasks("alice"));
+    }
+
+    @Test
+    public void messages_sessionEvicted_reloadedFromDisk() throws IOException, InterruptedException {
+        start(1);
+        post("alice", "todo read book");
+        post("bob", "todo buy bread");
+        post("carol", "todo walk dog");
+
+        assertEquals("You have 1 task:\n1. [T][ ] read book", post("alice", "list"));
+        assertEquals("You have 1 task:\n1. [T][ ] buy bread", post("bob", "list"));
+        assertEquals(1, server.getSessionCount());
+    }
+
+    @Test
+    public void messages_concurrentUsersEvicted_noTaskLost() throws Exception {
+        start(1);
+        int users = 8;
+        int tasksPerUser = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int u = 0; u < users; u++) {
+                String user = "user" + u;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < tasksPerUser; i++) {
+                        post(user, "todo task " + i);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        for (int u = 0; u < users; u++) {
+            assertEquals(tasksPerUser, getTasks("user" + u).split("\n\\{").length - 1);
+        }
+    }
+
+    @Test
+    public void messages_userNameInAnotherCase_sameSession() throws IOException, InterruptedException {
+        start(4);
+        post("Alice", "todo read book");
+        post("ALICE", "todo buy bread");
+
+        assertEquals("You have 2 tasks:\n1. [T][ ] read book\n2. [T][ ] buy bread", post("alice", "list"));
+        assertEquals(1, server.getSessionCount());
+        assertEquals(1, tempDir.toFile().list().length);
+    }
+
+    @Test
+    public void request_invalidUserOrPath_rejected() throws IOException, InterruptedException {
+        start(4);
+        assertEquals(400, send(request("/users/alice.bob/tasks").GET()).statusCode());
+        assertEquals(400, send(request("/users/CON/tasks").GET()).statusCode());
+        assertEquals(400, send(request("/users/lpt1/tasks").GET()).statusCode());
+        assertEquals(404, send(request("/users/..%2Fetc/tasks").GET()).statusCode());
+        assertEquals(404, send(request("/users/alice").GET()).statusCode());
+        assertEquals(405, send(request("/users/alice/messages").GET()).statusCode());
+        assertTrue(tempDir.toFile().list().length == 0);
+    }
+
+    @Test
+    public void messages_fromWebPageOrWithoutClientHeader_rejected() throws IOException, InterruptedException {
+        start(4);
+        HttpRequest.BodyPublisher body = HttpRequest.BodyPublishers.ofString("todo read book");
+        HttpRequest.Builder withoutHeader = HttpRequest.newBuilder(
+                URI.create("http://localhost:" + server.getPort() + "/users/alice/messages"))
+                .header("Content-Type", "text/plain");
+        assertEquals(403, send(withoutHeader.POST(body)).statusCode());
+        assertEquals(403, send(request("/users/alice/messages").header("Origin", "https://example.com")
+                .POST(body)).statusCode());
+        assertEquals(403, send(request("/users/alice/messages").header("Origin", "null").POST(body)).statusCode());
+
+        assertEquals("[]", getTasks("alice"));
+    }
+}
@@ -0,0 +1,254 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentTaskListTest {
+    private static final int WRITERS = 4;
+    private static final int READERS = 4;
+
+    /**
+     * Runs every writer and reader at once. The readers are run repeatedly until every writer is done.
+     *
+     * @return Messages of the exceptions and assertion errors thrown.
+     */
+    private static Queue<String> run(List<Runnable> writers, List<Runnable> readers) throws InterruptedException {
+        Queue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean isWriting = new AtomicBoolean(true);
+        List<Thread> writerThreads = new ArrayList<>();
+        List<Thread> readerThreads = new ArrayList<>();
+        for (Runnable writer : writers) {
+            writerThreads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    writer.run();
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            }));
+        }
+        for (Runnable reader : readers) {
+            readerThreads.add(new Thread(() -> {
+                try {
+                    start.await();
+                    do {
+                        reader.run();
+                    } while (isWriting.get());
+                } catch (Throwable e) {
+                    failures.add(e.toString());
+                }
+            }));
+        }
+        writerThreads.forEach(Thread::start);
+        readerThreads.forEach(Thread::start);
+        start.countDown();
+        for (Thread thread : writerThreads) {
+            thread.join();
+        }
+        isWriting.set(false);
+        for (Thread thread : readerThreads) {
+            thread.join();
+        }
+        return failures;
+    }
+
+    private static ConcurrentTaskList createTodos(int count) {
+        TaskList taskList = new TaskList();
+        for (int i = 0; i < count; i++) {
+            taskList.addTodo("task " + i);
+        }
+        return new ConcurrentTaskList(taskList);
+    }
+
+    /**
+     * Checks that a listing of every task is complete, and returns its lines.
+     */
+    private static String[] checkListing(String listing) {
+        String[] lines = listing.split("\n");
+        if (lines[0].equals("You don't have any tasks! :)")) {
+            return new String[0];
+        }
+        int count = lines.length - 1;
+        assertEquals(String.format("You have %d task%s:", count, count == 1 ? "" : "s"), lines[0]);
+        for (int i = 1; i <= count; i++) {
+            assertTrue(lines[i].startsWith(i + ". [T]"), lines[i]);
+        }
+        return lines;
+    }
+
+    @Test
+    public void addTodo_concurrentWriters_noLostUpdates() throws InterruptedException {
+        int tasksPerWriter = 300;
+        ConcurrentTaskList taskList = createTodos(0);
+        taskList.setPageSize(Integer.MAX_VALUE);
+        List<Runnable> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            String prefix = "writer " + w + " task ";
+            writers.add(() -> {
+                for (int i = 0; i < tasksPerWriter; i++) {
+                    taskList.addTodo(prefix + i);
+                }
+            });
+        }
+        List<Runnable> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            int[] previousCount = {0};
+            readers.add(() -> {
+                String[] lines = checkListing(taskList.listTasks());
+                int count = Math.max(lines.length - 1, 0);
+                // Tasks are never removed, so a later snapshot never has fewer tasks
+                assertTrue(count >= previousCount[0], count + " tasks after " + previousCount[0]);
+                previousCount[0] = count;
+                // Each writer's tasks appear in the order they were added, without gaps
+                int[] nextTask = new int[WRITERS];
+                for (int i = 1; i < lines.length; i++) {
+                    String[] words = lines[i].split(" ");
+                    // Each line is "n. [T][ ] writer w task i"
+                    int writer = Integer.parseInt(words[4]);
+                    assertEquals(nextTask[writer]++, Integer.parseInt(words[6]), lines[i]);
+                }
+            });
+        }
+
+        assertEquals(List.of(), List.copyOf(run(writers, readers)));
+        assertEquals(WRITERS * tasksPerWriter, taskList.size());
+        assertEquals(WRITERS * tasksPerWriter, checkListing(taskList.listTasks()).length - 1);
+    }
+
+    @Test
+    public void markTask_concurrentWriters_noLostUpdates() throws InterruptedException {
+        int count = 400;
+        ConcurrentTaskList taskList = createTodos(count);
+        List<Runnable> writers = new ArrayList<>();
+        for (int w = 0; w < WRITERS; w++) {
+            int first = w + 1;
+            writers.add(() -> {
+                for (int number = first; number <= count; number += WRITERS) {
+                    taskList.mark(Integer.toString(number));
+                }
+            });
+        }
+        List<Runnable> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(() -> {
+                String done = taskList.listTasksInView("done");
+                String undone = taskList.listTasksInView("undone");
+                assertTrue(done.startsWith("You") && undone.startsWith("You"));
+            });
+        }
+
+        assertEquals(List.of(), List.copyOf(run(writers, readers)));
+        assertTrue(taskList.getTasks().stream().allMatch(Task::isDone));
+        assertTrue(taskList.listTasksInView("done").startsWith("You have " + count + " done tasks"));
+    }
+
+    @Test
+    public void listTasks_markAllAndUnmarkAll_noTornReads() throws InterruptedException {
+        int count = 300;
+        ConcurrentTaskList taskList = createTodos(count);
+        taskList.setPageSize(Integer.MAX_VALUE);
+        List<Runnable> writers = List.of(() -> {
+            for (int i = 0; i < 200; i++) {
+                taskList.mark("all");
+                taskList.unmark("all");
+            }
+        });
+        List<Runnable> readers = new ArrayList<>();
+        for (int r = 0; r < READERS; r++) {
+            readers.add(() -> {
+                String[] lines = checkListing(taskList.listTasks());
+                assertEquals(count + 1, lines.length);
+                boolean isDone = lines[1].contains("[X]");
+                for (int i = 2; i < lines.length; i++) {
+                    assertEquals(isDone, lines[i].contains("[X]"), "Torn read: " + lines[i]);
+                }
+                List<Task> tasks = taskList.getTasks();
+                long doneCount = tasks.stream().filter(Task::isDone).count();
+                assertTrue(doneCount == 0 || doneCount == count, "Torn read: " + doneCount + " done");
+            });
+        }
+
+        assertEquals(List.of(), List.copyOf(run(writers, readers)));
+        assertTrue(taskList.getTasks().stream().noneMatch(Task::isDone));
+    }
+
+    /**
+     * Checks that both copies list the same tasks, by making each of them visible in turn.
+     */
+    private static void assertCopiesList(String expected, ConcurrentTaskList taskList) {
+        for (int i = 0; i < 2; i++) {
+            taskList.setPageSize(50);
+            assertEquals(expected, taskList.listTasks());
+        }
+    }
+
+    @Test
+    public void write_failsOnEitherCopy_copiesKeptTheSame() {
+        ConcurrentTaskList taskList = createTodos(2);
+        String before = taskList.listTasks();
+        AtomicInteger calls = new AtomicInteger();
+        assertThrows(IllegalStateException.class, () -> taskList.write(list -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        // Not run on the second copy
+        assertEquals(1, calls.get());
+        assertCopiesList(before, taskList);
+
+        // The replica is changed first, then the primary copy fails, so the change is not kept
+        calls.set(0);
+        assertThrows(IllegalStateException.class, () -> taskList.write(list -> {
+            if (calls.getAndIncrement() == 1) {
+                throw new IllegalStateException();
+            }
+            return list.addTodo("extra task");
+        }));
+        assertCopiesList(before, taskList);
+
+        // The primary copy is changed first, then the replica fails, so the change is kept
+        taskList.setPageSize(50);
+        calls.set(0);
+        taskList.write(list -> {
+            if (calls.getAndIncrement() == 1) {
+                throw new IllegalStateException();
+            }
+            return list.addTodo("extra task");
+        });
+        assertCopiesList("You have 3 tasks:\n1. [T][ ] task 0\n2. [T][ ] task 1\n3. [T][ ] extra task", taskList);
+    }
+
+    @Test
+    public void write_changesThenFailsOnFirstCopy_copiesKeptTheSame() {
+        ConcurrentTaskList taskList = createTodos(2);
+        String before = taskList.listTasks();
+
+        // The replica is changed, then fails, so it is rebuilt from the primary copy
+        assertThrows(IllegalStateException.class, () -> taskList.write(list -> {
+            list.addTodo("half done");
+            throw new IllegalStateException();
+        }));
+        assertCopiesList(before, taskList);
+
+        // After this, the primary copy is the one hidden from readers
+        taskList.addTodo("task 2");
+        // The primary copy is changed, then fails, so the replica is rebuilt from it
+        assertThrows(IllegalStateException.class, () -> taskList.write(list -> {
+            list.addTodo("half done");
+            throw new IllegalStateException();
+        }));
+        assertCopiesList("You have 4 tasks:\n1. [T][ ] task 0\n2. [T][ ] task 1\n3. [T][ ] task 2\n"
+                + "4. [T][ ] half done", taskList);
+    }
+}
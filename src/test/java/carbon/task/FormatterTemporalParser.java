@@ -0,0 +1,98 @@
+package carbon.task;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * FormatterTemporalParser is the original implementation of {@link Temporal#parse(String)}, which tries
+ * each supported DateTimeFormatter pattern in turn.
+ * It is kept as a reference for {@link TemporalParser}.
+ */
+public class FormatterTemporalParser {
+    // US Locale is specified in order to be consistent across different operating systems
+    // See https://stackoverflow.com/questions/70059067/is-datetimeformatter-operating-system-dependent
+    // for more info
+    private static final DateTimeFormatter[] DATE_FORMATTERS = Stream.of(
+            "d/M/yyyy",
+            "yyyy/M/d",
+            "d-M-yyyy",
+            "yyyy-M-d",
+            "d MMM yyyy",
+            "yyyy MMM d"
+    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
+
+    private static final DateTimeFormatter[] TIME_FORMATTERS = Stream.of(
+            "H:mm",
+            "h:mma",
+            "ha"
+    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
+
+    private static final DateTimeFormatter[] DATE_TIME_FORMATTERS = Stream.of(
+            "d/M/yyyy H:mm",
+            "yyyy/M/d H:mm",
+            "d-M-yyyy H:mm",
+            "yyyy-M-d H:mm",
+            "d MMM yyyy H:mm",
+            "yyyy MMM d H:mm",
+            "d/M/yyyy h:mma",
+            "yyyy/M/d h:mma",
+            "d-M-yyyy h:mma",
+            "yyyy-M-d h:mma",
+            "d MMM yyyy h:mma",
+            "yyyy MMM d h:mma",
+            "d/M/yyyy ha",
+            "yyyy/M/d ha",
+            "d-M-yyyy ha",
+            "yyyy-M-d ha",
+            "d MMM yyyy ha",
+            "yyyy MMM d ha"
+    ).map(x -> DateTimeFormatter.ofPattern(x).withLocale(Locale.US)).toArray(DateTimeFormatter[]::new);
+
+    private static String capitaliseAmPm(String text) {
+        return text.endsWith("am") || text.endsWith("pm")
+                ? text.substring(0, text.length() - 2) + text.substring(text.length() - 2).toUpperCase()
+                : text;
+    }
+
+    /**
+     * Returns a Temporal object of the appropriate type by parsing the input text.
+     * <p>
+     * First attempts to parse the text into a datetime-type Temporal.
+     * On failure, attempts to parse into a date-type Temporal.
+     * On failure, attempts to parse into a time-type Temporal.
+     * On failure, returns a text-type Temporal.
+     *
+     * @param text Text to be parsed.
+     * @return Temporal object obtained by parsing the text.
+     */
+    public static Temporal parse(String text) {
+        String capitalised = capitaliseAmPm(text);
+        for (DateTimeFormatter formatter : DATE_TIME_FORMATTERS) {
+            try {
+                return Temporal.of(LocalDateTime.parse(capitalised, formatter));
+            } catch (DateTimeParseException e) {
+                // Text does not fit this format, continue to next formatter
+            }
+        }
+        for (DateTimeFormatter formatter : DATE_FORMATTERS) {
+            try {
+                return Temporal.of(LocalDate.parse(text, formatter));
+            } catch (DateTimeParseException e) {
+                // Text does not fit this format, continue to next formatter
+            }
+        }
+        for (DateTimeFormatter formatter : TIME_FORMATTERS) {
+            try {
+                return Temporal.of(LocalTime.parse(capitalised, formatter));
+            } catch (DateTimeParseException e) {
+                // Text does not fit this format, continue to next formatter
+            }
+        }
+        return Temporal.ofText(text);
+    }
+}
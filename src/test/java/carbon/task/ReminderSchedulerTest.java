@@ -0,0 +1,129 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class ReminderSchedulerTest {
+    private static final Duration LEAD_TIME = Duration.ofHours(1);
+
+    private final BlockingQueue<String> reminders = new LinkedBlockingQueue<>();
+
+    private ReminderScheduler createScheduler() {
+        return new ReminderScheduler(reminders::add, LEAD_TIME, Clock.systemDefaultZone());
+    }
+
+    private static Deadline deadline(String description, LocalDateTime dueBy) {
+        return new Deadline(description, Temporal.of(dueBy));
+    }
+
+    @Test
+    public void taskAdded_dueWithinLeadTime_remindedOnce() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        TaskList taskList = new TaskList();
+        taskList.add(deadline("return book", now.plusMinutes(30)));
+        taskList.add(deadline("essay", now.plusHours(3)));
+        taskList.add(deadline("overdue", now.minusMinutes(30)));
+        taskList.add(new Todo("read book"));
+        taskList.add(new Deadline("someday", Temporal.ofText("someday")));
+        taskList.markTask(1);
+
+        try (ReminderScheduler scheduler = createScheduler()) {
+            ConcurrentTaskList concurrentTaskList = new ConcurrentTaskList(taskList);
+            concurrentTaskList.addListener(scheduler);
+
+            String reminder = reminders.poll(5, TimeUnit.SECONDS);
+            assertTrue(reminder != null && reminder.startsWith("Reminder! This is due soon:\n   #1 [D][ ] return book"),
+                    reminder);
+            assertNull(reminders.poll(200, TimeUnit.MILLISECONDS));
+            assertEquals(0, scheduler.getPendingCount());
+
+            concurrentTaskList.unmark("2");
+            assertEquals(1, scheduler.getPendingCount());
+        }
+    }
+
+    @Test
+    public void taskChanged_markedOrDeletedBeforeReminder_notReminded() throws InterruptedException {
+        // Reminded of in one to two seconds' time
+        LocalDateTime dueBy = LocalDateTime.now().withNano(0).plus(LEAD_TIME).plusSeconds(2);
+        TaskList taskList = new TaskList();
+        taskList.add(deadline("marked", dueBy));
+        taskList.add(deadline("deleted", dueBy));
+        taskList.add(new Event("book club", Temporal.of(dueBy), Temporal.of(dueBy.plusHours(2))));
+
+        try (ReminderScheduler scheduler = createScheduler()) {
+            ConcurrentTaskList concurrentTaskList = new ConcurrentTaskList(taskList);
+            concurrentTaskList.addListener(scheduler);
+            assertEquals(3, scheduler.getPendingCount());
+            concurrentTaskList.mark("1");
+            concurrentTaskList.delete("2");
+            assertEquals(1, scheduler.getPendingCount());
+
+            String reminder = reminders.poll(5, TimeUnit.SECONDS);
+            assertTrue(reminder != null && reminder.startsWith("Reminder! This starts soon:\n   #3 [E][ ] book club"),
+                    reminder);
+            assertNull(reminders.poll(200, TimeUnit.MILLISECONDS));
+        }
+    }
+
+    @Test
+    public void taskChanged_earliestReminderChanged_cancelledRunsRemoved() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        Deadline deadline = deadline("water plants", now.plusHours(3));
+        deadline.setRecurrence(new Recurrence(ChronoUnit.DAYS, 1, Temporal.of(now.plusWeeks(1))), 0);
+        TaskList taskList = new TaskList();
+        taskList.add(deadline);
+        taskList.add(deadline("essay", now.plusHours(2)));
+
+        try (ReminderScheduler scheduler = createScheduler()) {
+            ConcurrentTaskList concurrentTaskList = new ConcurrentTaskList(taskList);
+            concurrentTaskList.addListener(scheduler);
+            // Each change moves the earliest reminder between the two tasks
+            for (int i = 0; i < 100; i++) {
+                concurrentTaskList.mark("2");
+                concurrentTaskList.unmark("2");
+            }
+            concurrentTaskList.mark("1");
+            concurrentTaskList.mark("2");
+            assertEquals(1, scheduler.getPendingCount());
+            assertEquals(1, scheduler.getScheduledCount());
+            concurrentTaskList.delete("1");
+            assertEquals(0, scheduler.getPendingCount());
+            assertEquals(0, scheduler.getScheduledCount());
+        }
+    }
+
+    @Test
+    public void taskChanged_recurringTaskMarked_remindedOfNextOccurrence() throws InterruptedException {
+        // The first occurrence was due yesterday, and the next is reminded of in one to two seconds' time
+        LocalDateTime dueBy = LocalDateTime.now().withNano(0).plus(LEAD_TIME).plusSeconds(2);
+        Deadline deadline = deadline("water plants", dueBy.minusDays(1));
+        deadline.setRecurrence(new Recurrence(ChronoUnit.DAYS, 1, Temporal.of(dueBy.plusWeeks(1))), 0);
+        TaskList taskList = new TaskList();
+        taskList.add(deadline);
+
+        try (ReminderScheduler scheduler = createScheduler()) {
+            ConcurrentTaskList concurrentTaskList = new ConcurrentTaskList(taskList);
+            concurrentTaskList.addListener(scheduler);
+            assertEquals(0, scheduler.getPendingCount());
+            concurrentTaskList.mark("1");
+            assertEquals(1, scheduler.getPendingCount());
+
+            String reminder = reminders.poll(5, TimeUnit.SECONDS);
+            assertTrue(reminder != null
+                    && reminder.startsWith("Reminder! This is due soon:\n   #1 [D][ ] water plants"), reminder);
+            assertEquals(0, scheduler.getPendingCount());
+        }
+    }
+}
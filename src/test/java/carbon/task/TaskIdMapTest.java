@@ -0,0 +1,64 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskIdMapTest {
+    private static Task todoWithId(long id) {
+        Task task = new Todo("task " + id);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void get_randomChanges_sameAsHashMap() {
+        Random random = new Random(16);
+        TaskIdMap map = new TaskIdMap();
+        HashMap<Long, Task> expected = new HashMap<>();
+        List<Long> ids = new ArrayList<>();
+        for (int round = 0; round < 20000; round++) {
+            if (ids.isEmpty() || random.nextInt(3) > 0) {
+                // Mostly consecutive ids, as given by a TaskList, with some far apart
+                long id = random.nextInt(10) > 0 ? ids.size() + 1 : random.nextLong(1, Long.MAX_VALUE);
+                Task task = todoWithId(id);
+                map.put(task);
+                if (expected.put(id, task) == null) {
+                    ids.add(id);
+                }
+            } else {
+                long id = ids.remove(random.nextInt(ids.size()));
+                map.remove(id);
+                expected.remove(id);
+            }
+
+            assertEquals(expected.size(), map.size());
+            long probe = random.nextBoolean() && !ids.isEmpty()
+                    ? ids.get(random.nextInt(ids.size()))
+                    : random.nextLong(1, Long.MAX_VALUE);
+            assertSame(expected.get(probe), map.get(probe));
+        }
+        for (long id : ids) {
+            assertSame(expected.get(id), map.get(id));
+        }
+    }
+
+    @Test
+    public void remove_missingId_noChange() {
+        TaskIdMap map = new TaskIdMap();
+        Task task = todoWithId(3);
+        map.put(task);
+        map.remove(4);
+        assertSame(task, map.get(3));
+        map.clear();
+        assertNull(map.get(3));
+        assertEquals(0, map.size());
+    }
+}
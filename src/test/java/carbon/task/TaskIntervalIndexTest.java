@@ -0,0 +1,114 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskIntervalIndexTest {
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 7, 1, 0, 0);
+
+    private static Temporal randomTemporal(Random random) {
+        LocalDateTime dateTime = BASE.plusHours(random.nextInt(24 * 30));
+        return random.nextBoolean() ? Temporal.of(dateTime) : Temporal.of(dateTime.toLocalDate());
+    }
+
+    private static Task randomTask(Random random) {
+        return switch (random.nextInt(4)) {
+            case 0 -> new Deadline("d", randomTemporal(random));
+            case 1 -> new Todo("t");
+            default -> new Event("e", randomTemporal(random), randomTemporal(random));
+        };
+    }
+
+    private static long endOf(Temporal temporal, boolean isInclusive) {
+        return TaskIntervalIndex.endOf(temporal, isInclusive, 0);
+    }
+
+    /**
+     * Returns whether a task overlaps the period, by checking the task directly.
+     */
+    private static boolean overlaps(Task task, long from, long to) {
+        if (task instanceof Deadline deadline) {
+            long key = deadline.getDueBy().getSortKey(0);
+            return key >= from && key < to;
+        } else if (task instanceof Event event) {
+            long start = event.getStart().getSortKey(0);
+            return start < to && Math.max(endOf(event.getEnd(), false), start + 1) > from;
+        }
+        return false;
+    }
+
+    private static Set<Task> identitySetOf(List<Task> tasks) {
+        Set<Task> set = Collections.newSetFromMap(new IdentityHashMap<>());
+        set.addAll(tasks);
+        return set;
+    }
+
+    @Test
+    public void findOverlapping_randomChanges_sameAsScan() {
+        Random random = new Random(8);
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int round = 0; round < 3000; round++) {
+            if (tasks.isEmpty() || random.nextInt(3) > 0) {
+                Task task = randomTask(random);
+                tasks.add(task);
+                index.add(task);
+            } else {
+                index.remove(tasks.remove(random.nextInt(tasks.size())));
+            }
+
+            Temporal first = randomTemporal(random);
+            Temporal second = randomTemporal(random);
+            long from = Math.min(first.getSortKey(0), second.getSortKey(0));
+            long to = Math.max(endOf(first, true), endOf(second, true));
+            List<Task> expected = tasks.stream()
+                    .filter(task -> overlaps(task, from, to))
+                    .sorted(Comparator.comparingLong(task -> task.getSortKey(0)))
+                    .toList();
+            List<Task> actual = index.findOverlapping(from, to, 0).stream()
+                    .map(TaskIntervalIndex.Interval::task)
+                    .toList();
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getSortKey(0), actual.get(i).getSortKey(0));
+            }
+            assertEquals(identitySetOf(expected), identitySetOf(actual));
+        }
+    }
+
+    @Test
+    public void findConflicts_randomEvents_sameAsAllPairs() {
+        Random random = new Random(8);
+        TaskIntervalIndex index = new TaskIntervalIndex();
+        List<Task> events = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Task event = new Event("e", randomTemporal(random), randomTemporal(random));
+            events.add(event);
+            index.add(event);
+        }
+        index.add(new Deadline("d", Temporal.of(LocalDate.of(2024, 7, 10))));
+
+        int expected = 0;
+        for (int i = 0; i < events.size(); i++) {
+            for (int j = i + 1; j < events.size(); j++) {
+                Event first = (Event) events.get(i);
+                Event second = (Event) events.get(j);
+                long secondStart = second.getStart().getSortKey(0);
+                long secondEnd = Math.max(endOf(second.getEnd(), false), secondStart + 1);
+                expected += overlaps(first, secondStart, secondEnd) ? 1 : 0;
+            }
+        }
+        assertEquals(expected, index.findConflicts(0).size());
+    }
+}
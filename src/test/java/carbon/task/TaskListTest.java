@@ -1,10 +1,19 @@
 package carbon.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.junit.jupiter.api.Test;
 
+import carbon.exceptions.InvalidArgumentException;
+
 public class TaskListTest {
     @Test
     public void listTasks_noTasks_success() {
@@ -41,4 +50,456 @@ public class TaskListTest {
             // Expected
         }
     }
+
+    @Test
+    public void listTasks_filterAfterChanges_success() {
+        TaskList taskList = new TaskList();
+        taskList.addTodo("read book");
+        taskList.addDeadline("return book /by 2024-07-01 13:00");
+        taskList.addTodo("buy bread");
+        taskList.addEvent("book club /from 2024-07-02 /to 2024-07-03");
+        taskList.markTask(0);
+        taskList.markTask(2);
+        taskList.delete("2");
+
+        assertEquals("2 tasks contain \"BOOK\":\n1. [T][X] read book\n"
+                + "3. [E][ ] book club (from: 2 Jul 2024, to: 3 Jul 2024)", taskList.listTasks("BOOK"));
+        assertEquals("2 tasks contain \"[x]\":\n1. [T][X] read book\n2. [T][X] buy bread",
+                taskList.listTasks("[x]"));
+        assertEquals("2 tasks contain \"d\":\n1. [T][X] read book\n2. [T][X] buy bread", taskList.listTasks("d"));
+
+        taskList.delete("marked");
+        taskList.unmarkTask(0);
+        assertEquals("You don't have any tasks that contain \"[x]\".", taskList.listTasks("[x]"));
+        assertEquals("1 task contains \"club\":\n1. [E][ ] book club (from: 2 Jul 2024, to: 3 Jul 2024)",
+                taskList.listTasks("club"));
+    }
+
+    @Test
+    public void listTasks_query_matchingTasksInOriginalOrder() {
+        TaskList taskList = new TaskList();
+        taskList.addTodo("write report");
+        taskList.addDeadline("submit report /by 2026-11-20 17:00");
+        taskList.addDeadline("pay bills /by 2026-12-05");
+        taskList.addEvent("report review /from 2026-11-30 10:00 /to 2026-11-30 11:00");
+        taskList.addDeadline("report draft /by someday");
+        taskList.markTask(1);
+
+        assertEquals("3 tasks match \"type:D,E report\":\n2. [D][X] submit report (by: 20 Nov 2026 5:00pm)\n"
+                + "4. [E][ ] report review (from: 30 Nov 2026 10:00am, to: 30 Nov 2026 11:00am)\n"
+                + "5. [D][ ] report draft (by: someday)", taskList.listTasks("type:D,E report"));
+        assertEquals("1 task matches \"done:no before:2026-12-01\":\n"
+                + "4. [E][ ] report review (from: 30 Nov 2026 10:00am, to: 30 Nov 2026 11:00am)",
+                taskList.listTasks("done:no before:2026-12-01"));
+        assertEquals("1 task matches \"after:2026-11-30\":\n3. [D][ ] pay bills (by: 5 Dec 2026)",
+                taskList.listTasks("after:2026-11-30"));
+        assertEquals("1 task matches \"on:2026-11-20 text:\"submit rep\"\":\n"
+                + "2. [D][X] submit report (by: 20 Nov 2026 5:00pm)",
+                taskList.listTasks("on:2026-11-20 text:\"submit rep\""));
+        assertEquals("You don't have any tasks that match \"type:D done:no before:2026-12-01 text:report\".",
+                taskList.listTasks("type:D done:no before:2026-12-01 text:report"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listTasks("type:X"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listTasks("done:maybe"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listTasks("before:someday"));
+    }
+
+    @Test
+    public void listDueTasks_undoneTasksWithinPeriod_orderedByDueTime() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        TaskList taskList = new TaskList();
+        taskList.add(new Deadline("essay", Temporal.of(now.plusHours(5))));
+        taskList.add(new Event("book club", Temporal.of(now.plusHours(2)), Temporal.of(now.plusHours(4))));
+        taskList.add(new Deadline("report", Temporal.of(LocalDate.now().plusDays(1))));
+        taskList.add(new Deadline("overdue", Temporal.of(now.minusHours(1))));
+        taskList.add(new Event("camp", Temporal.of(now.minusDays(1)), Temporal.of(now.plusDays(1))));
+        taskList.add(new Deadline("done", Temporal.of(now.plusHours(1))));
+        taskList.add(new Deadline("someday", Temporal.ofText("someday")));
+        taskList.add(new Todo("read book"));
+        taskList.markTask(5);
+
+        String[] lines = taskList.listDueTasks("6 hours").split("\n");
+        assertEquals("2 tasks are due within 6 hours:", lines[0]);
+        assertEquals("2. [E][ ] book club", lines[1].substring(0, lines[1].indexOf(" (")));
+        assertEquals("1. [D][ ] essay", lines[2].substring(0, lines[2].indexOf(" (")));
+        assertEquals(3, lines.length);
+
+        // The report is due at the end of tomorrow
+        lines = taskList.listDueTasks("2d").split("\n");
+        assertEquals("3 tasks are due within 2d:", lines[0]);
+        assertEquals("3. [D][ ] report", lines[3].substring(0, lines[3].indexOf(" (")));
+        assertEquals("Nothing is due within 30 minutes.", taskList.listDueTasks("30 minutes"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listDueTasks("soon"));
+    }
+
+    @Test
+    public void mark_recurringDeadline_movesToNextOccurrence() {
+        TaskList taskList = new TaskList();
+        taskList.addDeadline("rent /by 2024-01-31 /every month until 2024-04-30");
+        assertEquals("You have 1 task:\n1. [D][ ] rent (by: 31 Jan 2024) (every month until 30 Apr 2024)",
+                taskList.listTasks());
+
+        assertEquals("Nice! Marked that occurrence as done. Next up:\n"
+                + "   [D][ ] rent (by: 29 Feb 2024) (every month until 30 Apr 2024)", taskList.markTask(0));
+        taskList.markTask(0);
+        assertEquals("Nice! Marked that occurrence as done. Next up:\n"
+                + "   [D][ ] rent (by: 30 Apr 2024) (every month until 30 Apr 2024)", taskList.markTask(0));
+        assertEquals("Nice! Marked as done:\n"
+                + "   [D][X] rent (by: 30 Apr 2024) (every month until 30 Apr 2024)", taskList.markTask(0));
+        assertEquals("Marked as not done:\n"
+                + "   [D][ ] rent (by: 30 Apr 2024) (every month until 30 Apr 2024)", taskList.unmarkTask(0));
+    }
+
+    @Test
+    public void listTasksBetween_recurringTasks_occurrencesListed() {
+        TaskList taskList = new TaskList();
+        taskList.addEvent("standup /from 2024-07-01 09:00 /to 2024-07-01 09:30 /every day until 2030-12-31");
+        taskList.addDeadline("report /by 2024-07-03 12:00");
+        // Done on 1 and 2 Jul
+        taskList.markTask(0);
+        taskList.markTask(0);
+
+        assertEquals("4 tasks fall between 2 Jul 2024 and 4 Jul 2024:\n"
+                + "1. [E][X] standup (from: 2 Jul 2024 9:00am, to: 2 Jul 2024 9:30am)\n"
+                + "1. [E][ ] standup (from: 3 Jul 2024 9:00am, to: 3 Jul 2024 9:30am)\n"
+                + "2. [D][ ] report (by: 3 Jul 2024 12:00pm)\n"
+                + "1. [E][ ] standup (from: 4 Jul 2024 9:00am, to: 4 Jul 2024 9:30am)",
+                taskList.listTasksBetween("2024-07-02 /and 2024-07-04"));
+        // Only the occurrences within the period are generated, however far the series goes
+        assertEquals("1 task falls between 1 Jun 2030 9:15am and 1 Jun 2030 10:00am:\n"
+                + "1. [E][ ] standup (from: 1 Jun 2030 9:00am, to: 1 Jun 2030 9:30am)",
+                taskList.listTasksBetween("2030-06-01 09:15 /and 2030-06-01 10:00"));
+        assertEquals("You don't have any tasks between 1 Jan 2031 and 2 Jan 2031.",
+                taskList.listTasksBetween("2031-01-01 /and 2031-01-02"));
+    }
+
+    @Test
+    public void listConflicts_recurringEvent_eachOccurrenceCompared() {
+        TaskList taskList = new TaskList();
+        taskList.addEvent("gym /from 2024-07-01 18:00 /to 2024-07-01 19:00 /every week until 2024-07-31");
+        taskList.addEvent("dinner /from 2024-07-15 18:30 /to 2024-07-15 20:00");
+        taskList.addEvent("film /from 2024-07-16 18:30 /to 2024-07-16 20:00");
+
+        assertEquals("1 pair of events overlaps:\n"
+                + "1. [E][ ] gym (from: 15 Jul 2024 6:00pm, to: 15 Jul 2024 7:00pm)\n"
+                + "2. [E][ ] dinner (from: 15 Jul 2024 6:30pm, to: 15 Jul 2024 8:00pm)",
+                taskList.listConflicts());
+    }
+
+    @Test
+    public void add_everyInDescription_partOfDescription() {
+        TaskList taskList = new TaskList();
+        taskList.addDeadline("read /every page /by 2026-11-01");
+        taskList.addEvent("talk on /every /from 2026-11-02 10:00 /to 2026-11-02 11:00 /every week until 2026-11-09");
+
+        assertEquals("You have 2 tasks:\n"
+                + "1. [D][ ] read /every page (by: 1 Nov 2026)\n"
+                + "2. [E][ ] talk on /every (from: 2 Nov 2026 10:00am, to: 2 Nov 2026 11:00am)"
+                + " (every week until 9 Nov 2026)", taskList.listTasks());
+    }
+
+    @Test
+    public void addDeadline_invalidRecurrence_exceptionThrown() {
+        TaskList taskList = new TaskList();
+        assertThrows(InvalidArgumentException.class,
+                () -> taskList.addDeadline("rent /by 5pm /every day until 2024-12-31"));
+        assertThrows(InvalidArgumentException.class,
+                () -> taskList.addDeadline("rent /by 2024-07-01 /every fortnight until 2024-12-31"));
+        assertThrows(InvalidArgumentException.class,
+                () -> taskList.addDeadline("rent /by 2024-07-01 /every week until 2024-06-01"));
+        assertThrows(InvalidArgumentException.class,
+                () -> taskList.addDeadline("rent /by 2024-07-01 /every week until soon"));
+        assertEquals(0, taskList.size());
+    }
+
+    @Test
+    public void listTasksBetween_deadlinesAndEvents_chronologicalOrder() {
+        TaskList taskList = new TaskList();
+        taskList.addDeadline("return book /by 2024-07-03 13:00");
+        taskList.addEvent("camp /from 2024-06-30 /to 2024-07-01");
+        taskList.addTodo("read book");
+        taskList.addEvent("book club /from 2024-07-02 18:00 /to 2024-07-02 20:00");
+        taskList.addDeadline("essay /by someday");
+        taskList.addDeadline("report /by 2024-07-04");
+
+        assertEquals("3 tasks fall between 1 Jul 2024 and 3 Jul 2024:\n"
+                + "2. [E][ ] camp (from: 30 Jun 2024, to: 1 Jul 2024)\n"
+                + "4. [E][ ] book club (from: 2 Jul 2024 6:00pm, to: 2 Jul 2024 8:00pm)\n"
+                + "1. [D][ ] return book (by: 3 Jul 2024 1:00pm)",
+                taskList.listTasksBetween("2024-07-01 /and 2024-07-03"));
+
+        taskList.delete("2");
+        assertEquals("1 task falls between 2 Jul 2024 8:00pm and 3 Jul 2024 1:00pm:\n"
+                + "1. [D][ ] return book (by: 3 Jul 2024 1:00pm)",
+                taskList.listTasksBetween("2024-07-02 20:00 /and 2024-07-03 13:00"));
+        assertEquals("You don't have any tasks between 5 Jul 2024 and 6 Jul 2024.",
+                taskList.listTasksBetween("2024-07-05 /and 2024-07-06"));
+    }
+
+    @Test
+    public void listConflicts_overlappingEvents_pairsListed() {
+        TaskList taskList = new TaskList();
+        assertEquals("None of your events overlap.", taskList.listConflicts());
+        taskList.addEvent("meeting /from 2024-07-01 17:00 /to 2024-07-01 18:00");
+        taskList.addEvent("dinner /from 2024-07-01 18:00 /to 2024-07-01 20:00");
+        taskList.addEvent("trip /from 2024-07-01 /to 2024-07-02");
+        taskList.addDeadline("report /by 2024-07-01 17:30");
+
+        assertEquals("2 pairs of events overlap:\n"
+                + "3. [E][ ] trip (from: 1 Jul 2024, to: 2 Jul 2024)\n"
+                + "1. [E][ ] meeting (from: 1 Jul 2024 5:00pm, to: 1 Jul 2024 6:00pm)\n\n"
+                + "3. [E][ ] trip (from: 1 Jul 2024, to: 2 Jul 2024)\n"
+                + "2. [E][ ] dinner (from: 1 Jul 2024 6:00pm, to: 1 Jul 2024 8:00pm)", taskList.listConflicts());
+
+        taskList.delete("3");
+        assertEquals("None of your events overlap.", taskList.listConflicts());
+    }
+
+    @Test
+    public void listTasksInView_afterChanges_orderUnchanged() {
+        TaskList taskList = new TaskList();
+        taskList.addTodo("read book");
+        taskList.addEvent("book club /from 2024-07-02 18:00 /to 2024-07-02 20:00");
+        taskList.addDeadline("return book /by 2024-07-01");
+        taskList.addDeadline("essay /by someday");
+        taskList.addTodo("buy bread");
+        taskList.markTask(1);
+        taskList.markTask(4);
+        taskList.delete("1");
+        String list = taskList.listTasks();
+
+        assertEquals("You have 4 tasks, ordered by date:\n"
+                + "2. [D][ ] return book (by: 1 Jul 2024)\n"
+                + "1. [E][X] book club (from: 2 Jul 2024 6:00pm, to: 2 Jul 2024 8:00pm)\n"
+                + "4. [T][X] buy bread\n"
+                + "3. [D][ ] essay (by: someday)", taskList.listTasksInView("by date"));
+        assertEquals("You have 4 tasks, grouped by type:\n"
+                + "4. [T][X] buy bread\n"
+                + "2. [D][ ] return book (by: 1 Jul 2024)\n"
+                + "3. [D][ ] essay (by: someday)\n"
+                + "1. [E][X] book club (from: 2 Jul 2024 6:00pm, to: 2 Jul 2024 8:00pm)",
+                taskList.listTasksInView("by type"));
+        assertEquals("You have 2 done tasks:\n"
+                + "1. [E][X] book club (from: 2 Jul 2024 6:00pm, to: 2 Jul 2024 8:00pm)\n"
+                + "4. [T][X] buy bread", taskList.listTasksInView("done"));
+        assertEquals(list, taskList.listTasks());
+
+        taskList.delete("marked");
+        assertEquals("You don't have any done tasks.", taskList.listTasksInView("done"));
+        assertEquals("You have 2 undone tasks:\n"
+                + "1. [D][ ] return book (by: 1 Jul 2024)\n"
+                + "2. [D][ ] essay (by: someday)", taskList.listTasksInView("undone"));
+    }
+
+    @Test
+    public void listTasksInView_byDate_sameAsSort() {
+        TaskList taskList = new TaskList();
+        taskList.addDeadline("lunch /by 12:00");
+        taskList.addEvent("trip /from 2024-07-02 /to 2024-07-05");
+        taskList.addTodo("read book");
+        taskList.addDeadline("dinner /by 19:00");
+        taskList.addDeadline("return book /by 2024-07-01 13:00");
+        taskList.addEvent("club /from 2024-07-02 /to 2024-07-02");
+
+        String view = taskList.listTasksInView("by date").replaceAll("\\d+\\. ", "");
+        String sorted = taskList.sortTasks().replaceAll("\\d+\\. ", "");
+        assertEquals(sorted.substring(sorted.indexOf('\n', sorted.indexOf('\n') + 1)),
+                view.substring(view.indexOf('\n')));
+    }
+
+    @Test
+    public void listTasks_pages_success() {
+        TaskList taskList = new TaskList();
+        taskList.setPageSize(2);
+        for (int i = 1; i <= 5; i++) {
+            taskList.addTodo("task " + i);
+        }
+
+        assertEquals("You have 5 tasks:\n1. [T][ ] task 1\n2. [T][ ] task 2\n"
+                + "(Page 1 of 3, enter \"list 2\" for the next page)", taskList.listTasks(1));
+        assertEquals("You have 5 tasks:\n5. [T][ ] task 5\n(Page 3 of 3)", taskList.listTasks(3));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listTasks(4));
+        assertThrows(InvalidArgumentException.class, () -> taskList.listTasks(0));
+
+        taskList.markTask(1);
+        taskList.markTask(3);
+        taskList.markTask(4);
+        assertEquals("3 tasks contain \"[x]\":\n5. [T][X] task 5\n(Page 2 of 2)",
+                taskList.listTasks("[x] /page 2"));
+        assertEquals("You have 3 done tasks:\n2. [T][X] task 2\n4. [T][X] task 4\n"
+                + "(Page 1 of 2, enter \"list done /page 2\" for the next page)", taskList.listTasksInView("done"));
+    }
+
+    @Test
+    public void writeTasks_sameAsListTasks() throws IOException {
+        TaskList taskList = new TaskList();
+        StringBuilder out = new StringBuilder();
+        taskList.writeTasks(out, "");
+        assertEquals(taskList.listTasks() + "\n", out.toString());
+
+        taskList.addTodo("read book");
+        taskList.addDeadline("return book /by 2024-07-01 13:00");
+        out.setLength(0);
+        taskList.writeTasks(out, "  ");
+        assertEquals(taskList.listTasks().replaceAll("(?m)^", "  ") + "\n", out.toString());
+    }
+
+    @Test
+    public void mark_ranges_success() {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 5; i++) {
+            taskList.addTodo("task " + i);
+        }
+        taskList.markTask(1);
+
+        assertEquals("Nice! Marked 2 tasks as done:\n1. [T][X] task 1\n3. [T][X] task 3\n"
+                + "(1 task was already marked as done, no changes made)", taskList.mark("1-3"));
+        assertEquals("Marked 3 tasks as not done:\n1. [T][ ] task 1\n2. [T][ ] task 2\n3. [T][ ] task 3\n"
+                + "(2 tasks were already marked as not done, no changes made)", taskList.unmark("all"));
+        assertEquals("All of those tasks are already marked as not done (no changes made).",
+                taskList.unmark("4, 5"));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.mark("4-6"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.mark("3-1"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.mark("1,a"));
+        assertEquals("You don't have any done tasks.", taskList.listTasksInView("done"));
+    }
+
+    @Test
+    public void delete_ranges_success() {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 6; i++) {
+            taskList.addTodo("task " + i);
+        }
+
+        assertEquals("Deleted 4 tasks:\n1. [T][ ] task 1\n3. [T][ ] task 3\n4. [T][ ] task 4\n6. [T][ ] task 6\n"
+                + "You now have 2 tasks.", taskList.delete("1,3-4,6"));
+        assertEquals("You have 2 tasks:\n1. [T][ ] task 2\n2. [T][ ] task 5", taskList.listTasks());
+        assertEquals("1 task contains \"5\":\n2. [T][ ] task 5", taskList.listTasks("5"));
+    }
+
+    @Test
+    public void deleteMarked_markedTasks_remainingKeptInOrder() {
+        TaskList taskList = new TaskList();
+        for (int i = 1; i <= 6; i++) {
+            taskList.addTodo("task " + i);
+        }
+        taskList.mark("2,5-6");
+
+        assertEquals("Deleted all marked tasks:\n2. [T][X] task 2\n5. [T][X] task 5\n6. [T][X] task 6",
+                taskList.delete("marked"));
+        assertEquals("You have 3 tasks:\n1. [T][ ] task 1\n2. [T][ ] task 3\n3. [T][ ] task 4",
+                taskList.listTasks());
+        assertEquals("You don't have any marked tasks.", taskList.delete("marked"));
+    }
+
+    @Test
+    public void listTasksInView_afterSort_sameOrderAsTaskList() {
+        TaskList taskList = new TaskList();
+        taskList.addTodo("read book");
+        taskList.addDeadline("essay /by 2024-07-03");
+        taskList.addDeadline("return book /by 2024-07-01");
+        taskList.addDeadline("quiz /by 2024-07-02");
+        taskList.mark("2-4");
+        taskList.sortTasks();
+
+        assertEquals("You have 3 done tasks:\n"
+                + "1. [D][X] return book (by: 1 Jul 2024)\n"
+                + "2. [D][X] quiz (by: 2 Jul 2024)\n"
+                + "3. [D][X] essay (by: 3 Jul 2024)", taskList.listTasksInView("done"));
+        assertEquals("You have 4 tasks, grouped by type:\n"
+                + "4. [T][ ] read book\n"
+                + "1. [D][X] return book (by: 1 Jul 2024)\n"
+                + "2. [D][X] quiz (by: 2 Jul 2024)\n"
+                + "3. [D][X] essay (by: 3 Jul 2024)", taskList.listTasksInView("by type"));
+        assertEquals("Deleted all marked tasks:\n"
+                + "1. [D][X] return book (by: 1 Jul 2024)\n"
+                + "2. [D][X] quiz (by: 2 Jul 2024)\n"
+                + "3. [D][X] essay (by: 3 Jul 2024)", taskList.delete("marked"));
+        assertEquals("You have 1 task:\n1. [T][ ] read book", taskList.listTasks());
+    }
+
+    @Test
+    public void archive_markedTasks_movedToArchive() {
+        TaskList taskList = new TaskList();
+        assertEquals("You don't have any archived tasks.", taskList.listArchive(1));
+        taskList.addTodo("read book");
+        taskList.addTodo("buy bread");
+        taskList.markTask(1);
+
+        assertEquals("Archived all marked tasks:\n2. [T][X] buy bread", taskList.archive("marked"));
+        assertEquals("You have 1 task:\n1. [T][ ] read book", taskList.listTasks());
+        assertEquals("You have 1 archived task:\n1. [T][X] buy bread", taskList.listArchive(1));
+        assertThrows(InvalidArgumentException.class, () -> taskList.archive("1"));
+    }
+
+    @Test
+    public void markAndDelete_taskIds_stableAcrossSortAndDelete() {
+        TaskList taskList = new TaskList();
+        taskList.addTodo("read book");
+        taskList.addDeadline("return book /by 2024-07-01");
+        taskList.addEvent("book club /from 2024-06-30 /to 2024-07-02");
+        taskList.sortTasks();
+        taskList.delete("1");
+
+        assertEquals("You have 2 tasks, with their ids:\n"
+                + "1. #2 [D][ ] return book (by: 1 Jul 2024)\n"
+                + "2. #1 [T][ ] read book", taskList.listTasksInView("ids"));
+        assertEquals("Nice! Marked as done:\n   [T][X] read book", taskList.mark("#1"));
+        assertEquals("Marked as not done:\n   [T][ ] read book", taskList.unmark("#1"));
+        taskList.delete("#2");
+        assertThrows(InvalidArgumentException.class, () -> taskList.mark("#2"));
+        assertThrows(InvalidArgumentException.class, () -> taskList.delete("#3"));
+
+        // Ids of deleted tasks are not reused
+        taskList.addTodo("buy bread");
+        assertEquals("You have 2 tasks, with their ids:\n"
+                + "1. #1 [T][ ] read book\n"
+                + "2. #4 [T][ ] buy bread", taskList.listTasksInView("ids"));
+    }
+
+    @Test
+    public void addListener_changesAppliedInOrder_sameOrderAsTaskList() {
+        TaskList taskList = new TaskList();
+        List<String> mirror = new ArrayList<>();
+        taskList.addListener(new TaskListener() {
+            @Override
+            public void taskAdded(Task task, int index) {
+                mirror.add(index, task.toString());
+            }
+
+            @Override
+            public void taskChanged(Task task, int index) {
+                mirror.set(index, task.toString());
+            }
+
+            @Override
+            public void taskRemoved(Task task, int index) {
+                mirror.remove(index);
+            }
+
+            @Override
+            public void tasksReordered(int[] newIndices) {
+                String[] reordered = new String[mirror.size()];
+                for (int i = 0; i < newIndices.length; i++) {
+                    reordered[newIndices[i]] = mirror.get(i);
+                }
+                mirror.clear();
+                mirror.addAll(List.of(reordered));
+            }
+        });
+        for (int i = 1; i <= 10; i++) {
+            taskList.addDeadline("task " + i + " /by 2024-07-" + (20 - i));
+        }
+        taskList.mark("2-4, 7");
+        taskList.delete("1, 3, 8-9");
+        taskList.sortTasks();
+        taskList.delete("marked");
+        taskList.mark("2");
+        taskList.archive("marked");
+        taskList.addTodo("read book");
+
+        List<String> expected = new ArrayList<>();
+        taskList.getTasks().forEach(task -> expected.add(task.toString()));
+        assertEquals(3, expected.size());
+        assertEquals(expected, mirror);
+    }
 }
@@ -0,0 +1,54 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class TaskQueryTest {
+    @Test
+    public void parse_termsAndText_success() {
+        TaskQuery query = TaskQuery.parse("Type:deadline,E done:NO before:2026-12-01 text:\"Project Report\" urgent");
+        long key = Temporal.parse("2026-12-01").getSortKey(0);
+        assertEquals(List.of(new TaskQuery.TypeTerm("DE"), new TaskQuery.DoneTerm(false),
+                new TaskQuery.DateTerm(Long.MIN_VALUE, key), new TaskQuery.TextTerm("project report"),
+                new TaskQuery.TextTerm("urgent")), query.getTerms());
+
+        TaskQuery plainText = TaskQuery.parse("meeting at 10:30 ");
+        assertTrue(plainText.isPlainText());
+        assertEquals(List.of(new TaskQuery.TextTerm("meeting at 10:30 ")), plainText.getTerms());
+    }
+
+    @Test
+    public void plan_mostSelectiveTerm_chosen() {
+        TaskSearchIndex searchIndex = new TaskSearchIndex();
+        TaskIntervalIndex intervalIndex = new TaskIntervalIndex();
+        TaskOrderIndex orderIndex = new TaskOrderIndex();
+        for (int i = 0; i < 100; i++) {
+            Task task = i % 10 == 0
+                    ? new Deadline("deadline " + i, Temporal.of(LocalDate.of(2026, 1, 1).plusDays(i)))
+                    : new Todo("todo " + i);
+            searchIndex.add(task);
+            intervalIndex.add(task);
+            orderIndex.add(task);
+        }
+        TaskQueryPlanner planner = new TaskQueryPlanner(searchIndex, intervalIndex, orderIndex);
+
+        TaskQueryPlanner.Plan plan = planner.plan(TaskQuery.parse("type:D todo"), 100);
+        assertEquals(new TaskQuery.TypeTerm("D"), plan.accessPath());
+        assertEquals(10, planner.lookUp(plan, 0).size());
+
+        plan = planner.plan(TaskQuery.parse("type:T text:\"todo 5\""), 100);
+        assertEquals(new TaskQuery.TextTerm("todo 5"), plan.accessPath());
+        assertEquals(10, planner.lookUp(plan, 0).size());
+
+        plan = planner.plan(TaskQuery.parse("before:2026-02-01 done:no"), 100);
+        assertEquals(4, plan.estimate());
+        assertEquals(4, planner.lookUp(plan, 0).size());
+
+        assertTrue(planner.plan(TaskQuery.parse("done:no type:T"), 100).isScan());
+    }
+}
@@ -0,0 +1,49 @@
+package carbon.task;
+
+import java.util.function.Function;
+
+/**
+ * Compares the time taken by {@link TemporalParser} and {@link FormatterTemporalParser} to parse typical input.
+ * <p>
+ * Run with <code>gradlew benchmark -PbenchmarkClass=carbon.task.TemporalParserBenchmark</code>.
+ */
+public class TemporalParserBenchmark {
+    private static final String[] INPUTS = {
+        "2024-07-01 13:00",
+        "1 Jul 2024 1:00pm",
+        "1/7/2024",
+        "1pm",
+        "13:00",
+        "next week",
+        "Friday",
+        "after exams"
+    };
+    private static final int ITERATIONS = 200_000;
+
+    private static double measure(Function<String, Temporal> parser) {
+        int checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            checksum += parser.apply(INPUTS[i % INPUTS.length]).getType().ordinal();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum < 0) {
+            throw new AssertionError(); // Prevents the loop from being optimised away
+        }
+        return (double) elapsed / ITERATIONS;
+    }
+
+    /**
+     * Runs the benchmark, printing the average time taken per parse.
+     *
+     * @param args Unused.
+     */
+    public static void main(String[] args) {
+        for (int round = 1; round <= 5; round++) {
+            double formatterTime = measure(FormatterTemporalParser::parse);
+            double parserTime = measure(Temporal::parse);
+            System.out.printf("Round %d: DateTimeFormatter %.0f ns/parse, TemporalParser %.0f ns/parse (%.1fx)%n",
+                    round, formatterTime, parserTime, formatterTime / parserTime);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package carbon.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class TemporalParserTest {
+    private static final String[] DAYS = {"0", "1", "01", "001", "7", "12", "13", "28", "29", "30", "31", "32", "-1",
+        "+1", "0000000000000000031", "00000000000000000031"};
+    private static final String[] MONTHS = {"0", "1", "02", "2", "4", "12", "13", "+7", "Jan", "Feb", "Apr", "Sep",
+        "Sept", "jul", "JUL", "July", "Ju"};
+    private static final String[] YEARS = {"0000", "0001", "1900", "2000", "2023", "2024", "24", "024", "12024",
+        "+2024", "+12024", "-2024", "+999999999", "+1000000000", "+000000000000002024"};
+    private static final String[] TIMES = {"0:00", "00:00", "1:00", "13:00", "013:00", "23:59", "24:00", "24:01",
+        "25:00", "1:5", "1:60", "1:000", "+1:00", "1:00pm", "1:00PM", "1:00Pm", "0:30am", "12:30am", "12:30AM",
+        "13:00pm", "1pm", "1PM", "0pm", "12am", "13am", "1 pm", "1:00 pm", "1xpm", "1:00pmx"};
+    private static final String SEPARATORS = "/- ";
+
+    private static void assertSameAsFormatter(String text) {
+        Temporal expected = FormatterTemporalParser.parse(text);
+        Temporal actual = Temporal.parse(text);
+        assertEquals(expected.getType(), actual.getType(), text);
+        assertEquals(expected.toStorageText(), actual.toStorageText(), text);
+    }
+
+    private static List<String> generateDates() {
+        List<String> dates = new ArrayList<>();
+        for (String day : DAYS) {
+            for (String month : MONTHS) {
+                for (String year : YEARS) {
+                    for (char separator : SEPARATORS.toCharArray()) {
+                        dates.add(day + separator + month + separator + year);
+                        dates.add(year + separator + month + separator + day);
+                    }
+                    dates.add(day + "/" + month + "-" + year);
+                }
+            }
+        }
+        return dates;
+    }
+
+    @Test
+    public void parse_generatedDates_sameAsFormatter() {
+        for (String date : generateDates()) {
+            assertSameAsFormatter(date);
+        }
+    }
+
+    @Test
+    public void parse_generatedTimes_sameAsFormatter() {
+        for (String time : TIMES) {
+            assertSameAsFormatter(time);
+        }
+    }
+
+    @Test
+    public void parse_generatedDateTimes_sameAsFormatter() {
+        List<String> dates = generateDates();
+        Random random = new Random(2103);
+        for (int i = 0; i < 20000; i++) {
+            String date = dates.get(random.nextInt(dates.size()));
+            String time = TIMES[random.nextInt(TIMES.length)];
+            assertSameAsFormatter(date + " " + time);
+        }
+        assertSameAsFormatter("31/12/2024 24:00");
+        assertSameAsFormatter("31/12/+999999999 24:00");
+        assertSameAsFormatter("31/4/2024 1pm");
+    }
+
+    @Test
+    public void parse_randomText_sameAsFormatter() {
+        char[] alphabet = "0123456789/-: +apmAPMJanulFebSp".toCharArray();
+        Random random = new Random(2103);
+        for (int i = 0; i < 50000; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(20);
+            for (int j = 0; j < length; j++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            assertSameAsFormatter(text.toString());
+        }
+    }
+}
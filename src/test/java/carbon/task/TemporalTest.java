@@ -1,6 +1,7 @@
 package carbon.task;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
@@ -61,4 +62,41 @@ public class TemporalTest {
             assertEquals(invalidText, Temporal.parse(invalidText).toString());
         }
     }
+
+    @Test
+    public void fromStorageText_storageText_sameTemporal() {
+        String[] texts = {"1 Jul 2024", "1:15pm", "2024-07-01 13:00", "next week", "TIME:soon"};
+        for (String text : texts) {
+            Temporal temporal = Temporal.parse(text);
+            Temporal loaded = Temporal.fromStorageText(temporal.toStorageText());
+            assertEquals(temporal.getType(), loaded.getType());
+            assertEquals(temporal.toString(), loaded.toString());
+        }
+        assertEquals("DATETIME:2024-07-01T13:00", Temporal.parse("1 Jul 2024 1pm").toStorageText());
+    }
+
+    @Test
+    public void fromStorageText_legacyText_parsed() {
+        assertEquals(TemporalType.DATETIME, Temporal.fromStorageText("1 Jul 2024 1:00pm").getType());
+        assertEquals(TemporalType.TIME, Temporal.fromStorageText("1:00pm").getType());
+        assertEquals(TemporalType.TEXT, Temporal.fromStorageText("Friday").getType());
+    }
+
+    @Test
+    public void getSortKey_mixedTypes_orderedByDateTime() {
+        long referenceEpochDay = Temporal.parse("2024-07-01").toEpochValue();
+        Temporal[] ordered = {
+            Temporal.parse("30 Jun 2024 11:59pm"),
+            Temporal.parse("1 Jul 2024"),
+            Temporal.parse("1 Jul 2024 9am"),
+            Temporal.parse("1pm"),
+            Temporal.parse("2 Jul 2024"),
+            Temporal.parse("someday")
+        };
+        for (int i = 1; i < ordered.length; i++) {
+            assertTrue(ordered[i - 1].getSortKey(referenceEpochDay) < ordered[i].getSortKey(referenceEpochDay));
+        }
+        assertEquals(Temporal.TEXT_SORT_KEY, Temporal.parse("someday").getSortKey(referenceEpochDay));
+        assertEquals(0, Temporal.parse("someday").compareTo(Temporal.parse("later")));
+    }
 }
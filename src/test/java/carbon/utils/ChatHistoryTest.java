@@ -0,0 +1,46 @@
+package carbon.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class ChatHistoryTest {
+    private static ChatMessage messageAt(int index) {
+        String text = index % 100 == 7
+                ? "long reply \u00e9\u4e2d ".repeat(10_000) + index
+                : "message " + index;
+        return index % 2 == 0 ? ChatMessage.fromUser(text) : ChatMessage.fromCarbon("list", text);
+    }
+
+    @Test
+    public void get_spilledMessages_readBackInOrder() {
+        int count = 1000;
+        try (ChatHistory history = new ChatHistory(10)) {
+            for (int i = 0; i < count; i++) {
+                history.add(messageAt(i));
+                assertEquals(messageAt(i), history.get(i));
+            }
+            assertEquals(count, history.size());
+
+            // Scrolling up from the end, then jumping around
+            for (int i = count - 1; i >= 0; i--) {
+                assertEquals(messageAt(i), history.get(i));
+                assertTrue(history.getCachedCount() <= 10 + 4 * 50);
+            }
+            Random random = new Random(1);
+            for (int i = 0; i < 500; i++) {
+                int index = random.nextInt(count);
+                assertEquals(messageAt(index), history.get(index));
+            }
+            assertTrue(history.getCachedCount() <= 10 + 4 * 50);
+            assertThrows(IndexOutOfBoundsException.class, () -> history.get(count));
+
+            history.close();
+            assertThrows(IllegalStateException.class, () -> history.add(messageAt(0)));
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package carbon.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class CommandQueueTest {
+    @Test
+    public void submit_slowCommands_respondedInOrderAfterClose() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger busyCalls = new AtomicInteger();
+        List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        List<RuntimeException> errors = Collections.synchronizedList(new ArrayList<>());
+        CommandQueue queue = new CommandQueue(input -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (input.equals("crash")) {
+                throw new IllegalStateException("crashed");
+            }
+            return new Response(input, "reply to " + input);
+        }, busyCalls::incrementAndGet, errors::add);
+
+        for (String input : List.of("todo a", "crash", "list", "bye")) {
+            queue.submit(input, response -> responses.add(response.text()));
+        }
+        // Submitting does not wait for the commands
+        assertTrue(queue.isBusy());
+        assertEquals(List.of(), responses);
+        assertEquals(1, busyCalls.get());
+
+        release.countDown();
+        queue.close();
+        assertFalse(queue.isBusy());
+        assertEquals(2, busyCalls.get());
+        assertEquals(List.of("reply to todo a", "Oops! Something went wrong with that command :(", "reply to list",
+                "reply to bye"), responses);
+        assertEquals(1, errors.size());
+        assertEquals("crashed", errors.get(0).getMessage());
+        assertThrows(IllegalStateException.class, () -> queue.submit("list", response -> { }));
+        assertFalse(queue.isBusy());
+    }
+
+    @Test
+    public void execute_slowLoad_commandsHeldUntilLoaded() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> loaded = Collections.synchronizedList(new ArrayList<>());
+        List<String> responses = Collections.synchronizedList(new ArrayList<>());
+        List<RuntimeException> errors = Collections.synchronizedList(new ArrayList<>());
+        CommandQueue queue = new CommandQueue(input -> new Response(input, loaded + " " + input), () -> { },
+                errors::add);
+
+        queue.execute(() -> {
+            throw new IllegalStateException("failed");
+        });
+        queue.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            loaded.add("tasks");
+        });
+        queue.submit("list", response -> responses.add(response.text()));
+        assertTrue(queue.isBusy());
+
+        release.countDown();
+        queue.close();
+        assertFalse(queue.isBusy());
+        assertEquals(List.of("[tasks] list"), responses);
+        assertEquals(1, errors.size());
+        assertEquals("failed", errors.get(0).getMessage());
+        assertThrows(IllegalStateException.class, () -> queue.execute(() -> { }));
+    }
+}
@@ -0,0 +1,243 @@
+package carbon.utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import carbon.task.TaskList;
+
+public class StorageTest {
+    @TempDir
+    private Path tempDir;
+
+    private Storage storage;
+
+    private TaskList load(String path) {
+        if (storage != null) {
+            storage.close();
+        }
+        storage = new Storage(path, Durability.BUFFERED, 0);
+        TaskList taskList = new TaskList(storage);
+        storage.loadDataFile(taskList);
+        return taskList;
+    }
+
+    @Test
+    public void durabilityFromName_anyCase_unknownIsGroup() {
+        assertEquals(Durability.SYNC, Durability.fromName("sync"));
+        assertEquals(Durability.BUFFERED, Durability.fromName(" Buffered "));
+        assertEquals(Durability.GROUP, Durability.fromName("fsync"));
+        assertEquals(Durability.GROUP, Durability.fromName(null));
+    }
+
+    @Test
+    public void loadDataFile_journalReplayed_success() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        taskList.addTodo("read book");
+        taskList.addDeadline("return book /by 2024-07-01 13:00");
+        taskList.addEvent("book club /from 2024-07-02 /to 2024-07-03");
+        taskList.markTask(0);
+        taskList.markTask(2);
+        taskList.unmarkTask(2);
+        taskList.delete("2");
+
+        assertEquals(taskList.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_batchesReplayed_success() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        for (int i = 0; i < 20; i++) {
+            taskList.addTodo("task " + i);
+        }
+        taskList.mark("1-10,15");
+        taskList.unmark("3,5-6");
+        taskList.delete("2,4,12-20");
+
+        assertEquals(taskList.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_recurringTasks_occurrencesKept() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        taskList.addDeadline("rent /by 2024-01-31 /every month until 2024-12-31");
+        taskList.addEvent("standup /from 2024-07-01 09:00 /to 2024-07-01 09:15 /every 2 days until 2024-07-05");
+        taskList.mark("1");
+        taskList.mark("1");
+        taskList.mark("2");
+        taskList.mark("2");
+        taskList.mark("2");
+        String expected = taskList.listTasks();
+
+        // Replayed from the journal
+        assertEquals(expected, load(path).listTasks());
+        // Read from a snapshot
+        taskList = load(path);
+        taskList.sortTasks();
+        assertEquals(expected, load(path).listTasks());
+        taskList = load(path);
+        taskList.unmark("2");
+        assertEquals(taskList.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_afterCompaction_success() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        for (int i = 0; i < 2500; i++) {
+            taskList.addTodo("task " + i);
+            if (i % 3 == 0) {
+                taskList.markTask(taskList.size() - 1);
+            }
+        }
+        taskList.delete("marked");
+        taskList.sortTasks();
+        taskList.addTodo("last task");
+
+        assertEquals(taskList.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_snapshotLoaded_replacedByNextSnapshot() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        for (int i = 0; i < 1200; i++) {
+            taskList.addTodo("task " + i);
+        }
+        storage.flush();
+
+        // The snapshot read on loading must not keep the next snapshot from replacing it
+        TaskList loaded = load(path);
+        for (int i = 0; i < 1200; i++) {
+            loaded.addTodo("more task " + i);
+        }
+        storage.flush();
+        loaded.addTodo("last task");
+
+        assertEquals(loaded.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_incompleteRecord_previousRecordsKept() throws IOException {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        taskList.addTodo("read book");
+        storage.flush();
+        try (FileWriter writer = new FileWriter(path + ".journal", true)) {
+            writer.write("2 ADD\nT\n");
+        }
+
+        TaskList loaded = load(path);
+        assertEquals(taskList.listTasks(), loaded.listTasks());
+
+        // New records are appended after the incomplete record has been dropped
+        loaded.addTodo("return book");
+        assertEquals(loaded.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void flush_groupCommit_allChangesWritten() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        Storage groupStorage = new Storage(path, Durability.GROUP, 20);
+        TaskList taskList = new TaskList(groupStorage);
+        groupStorage.loadDataFile(taskList);
+        for (int i = 0; i < 100; i++) {
+            taskList.addTodo("task " + i);
+        }
+        groupStorage.close();
+
+        assertEquals(taskList.listTasks(), load(path).listTasks());
+    }
+
+    @Test
+    public void loadDataFile_textFile_migrated() throws IOException {
+        String path = tempDir.resolve("tasks.bin").toString();
+        try (FileWriter writer = new FileWriter(tempDir.resolve("tasks.txt").toFile())) {
+            writer.write("T\n1\nread book\nD\n0\nreturn book\n1 Jul 2024 1:00pm\n"
+                    + "E\n0\nbook club\n2 Jul 2024\nsomeday\n");
+        }
+
+        String expected = "You have 3 tasks:\n"
+                + "1. [T][X] read book\n"
+                + "2. [D][ ] return book (by: 1 Jul 2024 1:00pm)\n"
+                + "3. [E][ ] book club (from: 2 Jul 2024, to: someday)";
+        assertEquals(expected, load(path).listTasks());
+        assertFalse(tempDir.resolve("tasks.txt").toFile().exists());
+        assertEquals(expected, load(path).listTasks());
+    }
+
+    @Test
+    public void loadArchive_archivedTasks_keptApart() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        taskList.addTodo("read book");
+        taskList.addDeadline("return book /by 2024-07-01 13:00");
+        taskList.addEvent("book club /from 2024-07-02 /to 2024-07-03");
+        taskList.mark("1-2");
+        taskList.archive("marked");
+        taskList.addTodo("buy bread");
+        taskList.mark("2");
+        taskList.archive("marked");
+        String archive = taskList.listArchive(1);
+
+        TaskList loaded = load(path);
+        assertEquals("You have 1 task:\n1. [E][ ] book club (from: 2 Jul 2024, to: 3 Jul 2024)", loaded.listTasks());
+        assertEquals("You have 3 archived tasks:\n"
+                + "1. [T][X] read book\n"
+                + "2. [D][X] return book (by: 1 Jul 2024 1:00pm)\n"
+                + "3. [T][X] buy bread", loaded.listArchive(1));
+        assertEquals(archive, loaded.listArchive(1));
+    }
+
+    @Test
+    public void loadDataFile_taskIds_keptAndNotReused() {
+        String path = tempDir.resolve("tasks.bin").toString();
+        TaskList taskList = load(path);
+        taskList.addTodo("read book");
+        taskList.addTodo("return book");
+        taskList.addTodo("buy bread");
+        taskList.sortTasks();
+        taskList.delete("#3");
+        taskList.delete("#1");
+
+        TaskList loaded = load(path);
+        assertEquals("You have 1 task, with their ids:\n1. #2 [T][ ] return book", loaded.listTasksInView("ids"));
+        loaded.addTodo("walk dog");
+        assertEquals("You have 2 tasks, with their ids:\n1. #2 [T][ ] return book\n2. #4 [T][ ] walk dog",
+                load(path).listTasksInView("ids"));
+    }
+
+    @Test
+    public void loadDataFile_snapshotWithoutIds_idsGiven() throws IOException {
+        String path = tempDir.resolve("tasks.bin").toString();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(path))) {
+            // Version 1 header and a single task, which has no id
+            out.writeInt(0x4352424E);
+            out.writeShort(1);
+            out.writeLong(0);
+            out.writeInt(1);
+            out.writeByte('T');
+            out.writeByte(1);
+            out.writeInt(9);
+            out.write("read book".getBytes(StandardCharsets.UTF_8));
+        }
+
+        TaskList taskList = load(path);
+        taskList.addTodo("buy bread");
+        String expected = "You have 2 tasks, with their ids:\n1. #1 [T][X] read book\n2. #2 [T][ ] buy bread";
+        assertEquals(expected, taskList.listTasksInView("ids"));
+        assertEquals(expected, load(path).listTasksInView("ids"));
+    }
+}
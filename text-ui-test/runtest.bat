@@ -3,11 +3,12 @@
 REM create bin directory if it doesn't exist
 if not exist ..\bin mkdir ..\bin
 
-REM delete output from previous run
+REM delete output and data from previous run
 if exist ACTUAL.txt del ACTUAL.txt
+if exist data rmdir /s /q data
 
-REM compile the code into the bin folder
-javac -cp ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\carbon\*.java
+REM compile the console version (without the GUI) into the bin folder
+javac -sourcepath ..\src\main\java -Xlint:none -d ..\bin ..\src\main\java\carbon\Carbon.java
 IF ERRORLEVEL 1 (
     echo ********** BUILD FAILURE **********
     pause
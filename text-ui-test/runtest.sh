@@ -6,14 +6,15 @@ then
     mkdir ../bin
 fi
 
-# delete output from previous run
+# delete output and data from previous run
 if [ -e "./ACTUAL.txt" ]
 then
     rm ACTUAL.txt
 fi
+rm -rf ./data
 
-# compile the code into the bin folder, terminates if error occurred
-if ! javac -cp ../src/main/java -Xlint:none -d ../bin ../src/main/java/carbon/*.java
+# compile the console version (without the GUI) into the bin folder, terminates if error occurred
+if ! javac -sourcepath ../src/main/java -Xlint:none -d ../bin ../src/main/java/carbon/Carbon.java
 then
     echo "********** BUILD FAILURE **********"
     exit 1